@@ -166,6 +166,17 @@ public class ChestHelper {
         return connected;
     }
 
+    // Other half of a vanilla double chest, or null for single and non-vanilla chests
+    public static BlockPos getDoubleChestPartner(Level level, BlockPos chestPos) {
+        if (!level.isLoaded(chestPos)) return null;
+
+        BlockState state = level.getBlockState(chestPos);
+        if (!(state.getBlock() instanceof ChestBlock) || state.getValue(ChestBlock.TYPE) == ChestType.SINGLE) {
+            return null;
+        }
+        return chestPos.relative(ChestBlock.getConnectedDirection(state));
+    }
+
     private static Direction[] getPossibleDoubleChestDirections() {
         // Double chests can form horizontally (not vertically)
         return new Direction[] { Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST };
@@ -15,6 +15,22 @@ public class Config {
     // Item transport settings
     public static int ITEM_TRANSFER_RATE = 4; // Items per tick
 
+    // Transfer cycle settings
+    public static int BROADPHASE_CELL_SIZE = 16; // Grid cell size in blocks used to find nearby multiblocks
+    public static double SHIP_MOVE_THRESHOLD = 0.05; // Blocks a ship must move before its multiblocks are recalculated
+    public static double SHIP_ROTATION_THRESHOLD = 0.5; // Degrees a ship must rotate before its multiblocks are recalculated
+    public static int TRANSFER_TICK_BUDGET_MICROS = 500; // Time per tick the transfer cycle may use before carrying work over
+    public static int LINK_TICK_BUDGET_MICROS = 500; // Time per tick due links may use before the rest wait for the next tick
+    public static int LINK_BASE_INTERVAL_TICKS = 10; // Ticks between runs of an exporter/importer link that is moving items
+    public static int LINK_MAX_INTERVAL_TICKS = 1600; // Longest an idle exporter/importer link waits between attempts
+    public static double DOCKING_POSITION_TOLERANCE = 0.25; // Blocks a docked ship may drift before the pair is checked again
+    public static double DOCKING_ROTATION_TOLERANCE = 2.0; // Degrees a docked ship may turn before the pair is checked again
+    public static double DOCKING_HYSTERESIS = 0.5; // Extra gap in blocks an established docking survives before it ends
+    public static int INVENTORY_SUMMARY_MAX_AGE_TICKS = 200; // Chest summaries are rebuilt at least this often, even without a reported change
+    public static double LINK_MAX_ITEMS_PER_SECOND = 64; // Throughput limit of a single exporter/importer link, 0 = only the alignment-based amount
+    public static int SERVER_MAX_ITEMS_PER_TICK = 0; // Items all transporters on the server may move per tick together, 0 = unlimited
+    public static int TRANSFER_PLANNER_THREADS = 2; // Worker threads for transfer data and pair geometry, 0 = calculate on the server thread
+
 
     private static final String CONFIG_FILE_NAME = "ship_item_transporter.toml";
     private static final String DEFAULT_CONFIG =
@@ -30,7 +46,46 @@ public class Config {
 
                     "# Item transport settings\n" +
                     "# How many items to transfer per tick (20 ticks = 1 second)\n" +
-                    "itemTransferRate=4\n\n" ;
+                    "itemTransferRate=4\n\n" +
+
+                    "# Transfer cycle settings\n" +
+                    "# Size in blocks of the grid cells used to find multiblocks close enough to transfer\n" +
+                    "broadphaseCellSize=16\n\n" +
+
+                    "# How far (in blocks) and how much (in degrees) a ship must move before its\n" +
+                    "# transporter geometry is recalculated\n" +
+                    "shipMoveThreshold=0.05\n" +
+                    "shipRotationThreshold=0.5\n\n" +
+
+                    "# Microseconds per tick the transfer cycle may use; remaining work continues next tick\n" +
+                    "transferTickBudgetMicros=500\n\n" +
+
+                    "# Microseconds per tick exporter/importer links may use for their transfers; the rest run next tick\n" +
+                    "linkTickBudgetMicros=500\n\n" +
+
+                    "# Ticks between runs of a link that is moving items, and the longest time an idle link\n" +
+                    "# (empty exporter or full importer) waits before trying again\n" +
+                    "linkBaseIntervalTicks=10\n" +
+                    "linkMaxIntervalTicks=1600\n\n" +
+
+                    "# How far (in blocks) and how much (in degrees) a docked ship may move before the docking is checked again\n" +
+                    "dockingPositionTolerance=0.25\n" +
+                    "dockingRotationTolerance=2.0\n\n" +
+
+                    "# Extra gap in blocks a docking survives before it ends, so ships bobbing at the edge stay docked\n" +
+                    "dockingHysteresis=0.5\n\n" +
+
+                    "# Ticks a cached chest content summary is trusted without a reported change\n" +
+                    "inventorySummaryMaxAgeTicks=200\n\n" +
+
+                    "# Most items per second a single exporter/importer pair may move (0 = no limit besides alignment)\n" +
+                    "linkMaxItemsPerSecond=64\n\n" +
+
+                    "# Most items all transporters on the server may move per tick together, shared evenly (0 = no limit)\n" +
+                    "serverMaxItemsPerTick=0\n\n" +
+
+                    "# Worker threads that check transporter geometry off the server thread (0 = use the server thread)\n" +
+                    "transferPlannerThreads=2\n\n" ;
 
 
     public static void load() {
@@ -101,6 +156,48 @@ public class Config {
                 case "itemTransferRate":
                     ITEM_TRANSFER_RATE = parseInt(value, 4);
                     break;
+                case "broadphaseCellSize":
+                    BROADPHASE_CELL_SIZE = parseInt(value, 16);
+                    break;
+                case "shipMoveThreshold":
+                    SHIP_MOVE_THRESHOLD = parseDouble(value, 0.05);
+                    break;
+                case "shipRotationThreshold":
+                    SHIP_ROTATION_THRESHOLD = parseDouble(value, 0.5);
+                    break;
+                case "transferTickBudgetMicros":
+                    TRANSFER_TICK_BUDGET_MICROS = parseInt(value, 500);
+                    break;
+                case "linkTickBudgetMicros":
+                    LINK_TICK_BUDGET_MICROS = parseInt(value, 500);
+                    break;
+                case "linkBaseIntervalTicks":
+                    LINK_BASE_INTERVAL_TICKS = Math.max(1, parseInt(value, 10));
+                    break;
+                case "linkMaxIntervalTicks":
+                    LINK_MAX_INTERVAL_TICKS = parseInt(value, 1600);
+                    break;
+                case "dockingPositionTolerance":
+                    DOCKING_POSITION_TOLERANCE = parseDouble(value, 0.25);
+                    break;
+                case "dockingRotationTolerance":
+                    DOCKING_ROTATION_TOLERANCE = parseDouble(value, 2.0);
+                    break;
+                case "dockingHysteresis":
+                    DOCKING_HYSTERESIS = parseDouble(value, 0.5);
+                    break;
+                case "inventorySummaryMaxAgeTicks":
+                    INVENTORY_SUMMARY_MAX_AGE_TICKS = parseInt(value, 200);
+                    break;
+                case "linkMaxItemsPerSecond":
+                    LINK_MAX_ITEMS_PER_SECOND = parseDouble(value, 64);
+                    break;
+                case "serverMaxItemsPerTick":
+                    SERVER_MAX_ITEMS_PER_TICK = parseInt(value, 0);
+                    break;
+                case "transferPlannerThreads":
+                    TRANSFER_PLANNER_THREADS = parseInt(value, 2);
+                    break;
 
 
                 default:
@@ -126,6 +223,17 @@ public class Config {
         }
     }
 
+    private static double parseDouble(String value, double defaultValue) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            if (CONSOLE_LOGS) {
+                System.out.println("[Ship Item Transporter] Using default value " + defaultValue + " for " + value);
+            }
+            return defaultValue;
+        }
+    }
+
     private static boolean parseBoolean(String value, boolean defaultValue) {
         if ("true".equalsIgnoreCase(value)) return true;
         if ("false".equalsIgnoreCase(value)) return false;
@@ -142,6 +250,16 @@ public class Config {
             System.out.println("[Ship Item Transporter] - File logs: " + CREATE_LOG_FILES);
             System.out.println("[Ship Item Transporter] - Console logs: " + CONSOLE_LOGS);
             System.out.println("[Ship Item Transporter] - Item transfer rate: " + ITEM_TRANSFER_RATE);
+            System.out.println("[Ship Item Transporter] - Broadphase cell size: " + BROADPHASE_CELL_SIZE);
+            System.out.println("[Ship Item Transporter] - Ship move threshold: " + SHIP_MOVE_THRESHOLD + " blocks, " + SHIP_ROTATION_THRESHOLD + " degrees");
+            System.out.println("[Ship Item Transporter] - Transfer tick budget: " + TRANSFER_TICK_BUDGET_MICROS + " us");
+            System.out.println("[Ship Item Transporter] - Link tick budget: " + LINK_TICK_BUDGET_MICROS + " us");
+            System.out.println("[Ship Item Transporter] - Link interval: " + LINK_BASE_INTERVAL_TICKS + " ticks, idle up to " + LINK_MAX_INTERVAL_TICKS + " ticks");
+            System.out.println("[Ship Item Transporter] - Docking tolerance: " + DOCKING_POSITION_TOLERANCE + " blocks, " + DOCKING_ROTATION_TOLERANCE + " degrees, hysteresis: " + DOCKING_HYSTERESIS + " blocks");
+            System.out.println("[Ship Item Transporter] - Inventory summary max age: " + INVENTORY_SUMMARY_MAX_AGE_TICKS + " ticks");
+            System.out.println("[Ship Item Transporter] - Link item rate limit: " + (LINK_MAX_ITEMS_PER_SECOND > 0 ? LINK_MAX_ITEMS_PER_SECOND + " items/s" : "none"));
+            System.out.println("[Ship Item Transporter] - Server item limit: " + (SERVER_MAX_ITEMS_PER_TICK > 0 ? SERVER_MAX_ITEMS_PER_TICK + " items/tick" : "none"));
+            System.out.println("[Ship Item Transporter] - Transfer planner threads: " + TRANSFER_PLANNER_THREADS);
 
 
         }
@@ -152,6 +270,20 @@ public class Config {
         CREATE_LOG_FILES = false;
         CONSOLE_LOGS = true;
         ITEM_TRANSFER_RATE = 4;
+        BROADPHASE_CELL_SIZE = 16;
+        SHIP_MOVE_THRESHOLD = 0.05;
+        SHIP_ROTATION_THRESHOLD = 0.5;
+        TRANSFER_TICK_BUDGET_MICROS = 500;
+        LINK_TICK_BUDGET_MICROS = 500;
+        LINK_BASE_INTERVAL_TICKS = 10;
+        LINK_MAX_INTERVAL_TICKS = 1600;
+        DOCKING_POSITION_TOLERANCE = 0.25;
+        DOCKING_ROTATION_TOLERANCE = 2.0;
+        DOCKING_HYSTERESIS = 0.5;
+        INVENTORY_SUMMARY_MAX_AGE_TICKS = 200;
+        LINK_MAX_ITEMS_PER_SECOND = 64;
+        SERVER_MAX_ITEMS_PER_TICK = 0;
+        TRANSFER_PLANNER_THREADS = 2;
 
     }
 
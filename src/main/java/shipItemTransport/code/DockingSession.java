@@ -0,0 +1,102 @@
+package shipItemTransport.code;
+
+import net.minecraft.core.BlockPos;
+import net.minecraftforge.items.IItemHandler;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+
+import java.util.Map;
+
+// Result of a full transfer check between two docked multiblocks, kept for as long as they stay docked.
+// While both sides stay within the docking tolerance of the pose the session was validated at,
+// a transfer reuses the resolved item handlers, alignment and amount instead of checking the pair again.
+public class DockingSession {
+    private MultiblockManager.MultiblockTransferData exporter;
+    private MultiblockManager.MultiblockTransferData importer;
+    private final Map<BlockPos, IItemHandler> exporterHandlers;
+    private final Map<BlockPos, IItemHandler> importerHandlers;
+    private float alignmentPercent;
+    private int transferAmount;
+
+    // Ship poses at the last full check, null for ground multiblocks
+    private Vector3d exporterPosition;
+    private Quaterniond exporterRotation;
+    private Vector3d importerPosition;
+    private Quaterniond importerRotation;
+
+    public DockingSession(MultiblockManager.MultiblockTransferData exporter, MultiblockManager.MultiblockTransferData importer,
+                          Map<BlockPos, IItemHandler> exporterHandlers, Map<BlockPos, IItemHandler> importerHandlers,
+                          float alignmentPercent, int transferAmount) {
+        this.exporterHandlers = exporterHandlers;
+        this.importerHandlers = importerHandlers;
+        revalidate(exporter, importer, alignmentPercent, transferAmount);
+    }
+
+    // Both sides still use the transfer data the session last saw
+    public boolean isCurrent(MultiblockManager.MultiblockTransferData exporter, MultiblockManager.MultiblockTransferData importer) {
+        return this.exporter == exporter && this.importer == importer;
+    }
+
+    // Both sides are still within the tolerance of the pose of the last full check
+    public boolean isWithinTolerance(MultiblockManager.MultiblockTransferData exporter, MultiblockManager.MultiblockTransferData importer,
+                                     double positionTolerance, double rotationToleranceDegrees) {
+        return isPoseWithinTolerance(exporterPosition, exporterRotation, exporter.shipPosition, exporter.shipRotation,
+                positionTolerance, rotationToleranceDegrees) &&
+                isPoseWithinTolerance(importerPosition, importerRotation, importer.shipPosition, importer.shipRotation,
+                        positionTolerance, rotationToleranceDegrees);
+    }
+
+    private static boolean isPoseWithinTolerance(Vector3d position, Quaterniond rotation, Vector3d newPosition, Quaterniond newRotation,
+                                                 double positionTolerance, double rotationToleranceDegrees) {
+        if (position == null || newPosition == null) {
+            // Ground on both checks is always within tolerance, ship pose appearing or disappearing never is
+            return position == null && newPosition == null;
+        }
+        return !ShipTransformSnapshot.exceedsTolerance(position, rotation, newPosition, newRotation,
+                positionTolerance, rotationToleranceDegrees);
+    }
+
+    // Follows recalculated transfer data that stayed within tolerance; the validated pose is kept
+    // so small movements add up until the next full check
+    public void follow(MultiblockManager.MultiblockTransferData exporter, MultiblockManager.MultiblockTransferData importer) {
+        this.exporter = exporter;
+        this.importer = importer;
+    }
+
+    // Takes the result of a new full check, keeping the resolved handlers
+    public void revalidate(MultiblockManager.MultiblockTransferData exporter, MultiblockManager.MultiblockTransferData importer,
+                           float alignmentPercent, int transferAmount) {
+        this.exporter = exporter;
+        this.importer = importer;
+        this.alignmentPercent = alignmentPercent;
+        this.transferAmount = transferAmount;
+        this.exporterPosition = exporter.shipPosition;
+        this.exporterRotation = exporter.shipRotation;
+        this.importerPosition = importer.shipPosition;
+        this.importerRotation = importer.shipRotation;
+    }
+
+    public MultiblockManager.MultiblockTransferData getExporter() {
+        return exporter;
+    }
+
+    public MultiblockManager.MultiblockTransferData getImporter() {
+        return importer;
+    }
+
+    public Map<BlockPos, IItemHandler> getExporterHandlers() {
+        return exporterHandlers;
+    }
+
+    public Map<BlockPos, IItemHandler> getImporterHandlers() {
+        return importerHandlers;
+    }
+
+    public float getAlignmentPercent() {
+        return alignmentPercent;
+    }
+
+    public int getTransferAmount() {
+        return transferAmount;
+    }
+}
@@ -0,0 +1,106 @@
+package shipItemTransport.code;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import org.joml.Matrix4d;
+import org.joml.Vector3d;
+
+// Shape of a ship multiblock as seen across a world face, for one ship pose: every block snapped to the world
+// block its center is in, flattened onto a plane across the world axis.
+// Also remembers how far the block centers sit from the cell borders, so a ship that only moved (same rotation)
+// reuses the projection, shifted by whole cells, until a center would cross a border.
+public class FaceProjection {
+    private static final double BORDER_MARGIN = 1e-6; // keeps rounding from deciding which cell a center is in
+
+    private final PlanarShape source; // ship-local shape the projection was made from
+    private final Direction.Axis worldAxis;
+    private final Matrix4d shipToWorld;
+    private final PlanarShape shape;
+    // Smallest and largest position of a block center inside its cell, along the two plane axes
+    private final double minFracU, maxFracU, minFracV, maxFracV;
+
+    private FaceProjection(PlanarShape source, Direction.Axis worldAxis, Matrix4d shipToWorld, PlanarShape shape,
+                           double minFracU, double maxFracU, double minFracV, double maxFracV) {
+        this.source = source;
+        this.worldAxis = worldAxis;
+        this.shipToWorld = shipToWorld;
+        this.shape = shape;
+        this.minFracU = minFracU;
+        this.maxFracU = maxFracU;
+        this.minFracV = minFracV;
+        this.maxFracV = maxFracV;
+    }
+
+    // Projection for the given pose, reusing this one if it can be shifted there; previous may be null.
+    // One transform per occupied cell when it has to be made again.
+    public static FaceProjection project(FaceProjection previous, PlanarShape source, ShipTransformSnapshot.ShipPose pose,
+                                         Direction.Axis worldAxis) {
+        if (previous != null) {
+            FaceProjection shifted = previous.shiftedTo(source, pose.shipToWorld, worldAxis);
+            if (shifted != null) return shifted;
+        }
+
+        LongSet projected = new LongOpenHashSet(source.getBlockCount());
+        Vector3d center = new Vector3d();
+        double[] fractions = {1, 0, 1, 0}; // min u, max u, min v, max v
+        source.forEachBlock(pos -> {
+            center.set(BlockPos.getX(pos) + 0.5, BlockPos.getY(pos) + 0.5, BlockPos.getZ(pos) + 0.5);
+            pose.transformPosition(center);
+            double u = uOf(center, worldAxis), v = vOf(center, worldAxis);
+            double fracU = u - Math.floor(u), fracV = v - Math.floor(v);
+            fractions[0] = Math.min(fractions[0], fracU);
+            fractions[1] = Math.max(fractions[1], fracU);
+            fractions[2] = Math.min(fractions[2], fracV);
+            fractions[3] = Math.max(fractions[3], fracV);
+            int x = worldAxis == Direction.Axis.X ? 0 : (int) Math.floor(center.x);
+            int y = worldAxis == Direction.Axis.Y ? 0 : (int) Math.floor(center.y);
+            int z = worldAxis == Direction.Axis.Z ? 0 : (int) Math.floor(center.z);
+            projected.add(BlockPos.asLong(x, y, z));
+        });
+        return new FaceProjection(source, worldAxis, new Matrix4d(pose.shipToWorld), PlanarShape.of(projected, worldAxis),
+                fractions[0], fractions[1], fractions[2], fractions[3]);
+    }
+
+    // This projection moved to the new pose, or null if the shape or rotation changed or a center crosses a border
+    private FaceProjection shiftedTo(PlanarShape newSource, Matrix4d newShipToWorld, Direction.Axis newWorldAxis) {
+        if (newSource != source || newWorldAxis != worldAxis || !sameRotation(newShipToWorld)) return null;
+
+        Vector3d moved = new Vector3d(newShipToWorld.m30() - shipToWorld.m30(),
+                newShipToWorld.m31() - shipToWorld.m31(), newShipToWorld.m32() - shipToWorld.m32());
+        double du = uOf(moved, worldAxis), dv = vOf(moved, worldAxis);
+        int cellsU = (int) Math.floor(minFracU + du), cellsV = (int) Math.floor(minFracV + dv);
+        if (!staysInCell(minFracU + du - cellsU, maxFracU + du - cellsU) ||
+                !staysInCell(minFracV + dv - cellsV, maxFracV + dv - cellsV)) {
+            return null;
+        }
+        if (cellsU == 0 && cellsV == 0 && du == 0 && dv == 0) return this;
+
+        return new FaceProjection(source, worldAxis, new Matrix4d(newShipToWorld), shape.translated(cellsU, cellsV),
+                minFracU + du - cellsU, maxFracU + du - cellsU, minFracV + dv - cellsV, maxFracV + dv - cellsV);
+    }
+
+    private static boolean staysInCell(double minFrac, double maxFrac) {
+        return minFrac >= BORDER_MARGIN && maxFrac < 1 - BORDER_MARGIN;
+    }
+
+    private boolean sameRotation(Matrix4d other) {
+        return other.m00() == shipToWorld.m00() && other.m01() == shipToWorld.m01() && other.m02() == shipToWorld.m02() &&
+                other.m10() == shipToWorld.m10() && other.m11() == shipToWorld.m11() && other.m12() == shipToWorld.m12() &&
+                other.m20() == shipToWorld.m20() && other.m21() == shipToWorld.m21() && other.m22() == shipToWorld.m22();
+    }
+
+    // Plane axes as in PlanarShape: Y planes use (x, z), Z planes (x, y) and X planes (z, y)
+    private static double uOf(Vector3d pos, Direction.Axis axis) {
+        return axis == Direction.Axis.X ? pos.z : pos.x;
+    }
+
+    private static double vOf(Vector3d pos, Direction.Axis axis) {
+        return axis == Direction.Axis.Y ? pos.z : pos.y;
+    }
+
+    public PlanarShape getShape() {
+        return shape;
+    }
+}
@@ -0,0 +1,143 @@
+package shipItemTransport.code;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+
+import java.util.*;
+
+// Free and partially filled slots of an importer, built once per transfer.
+// Stacks are planned straight into slots that already hold the item and then into empty slots,
+// instead of offering every stack to every importer slot; a full importer is known without probing.
+// The index tracks what each slot will hold once the planned moves are committed.
+public class ImporterSlotIndex {
+    private final Map<Item, List<SlotRef>> partialSlots = new HashMap<>();
+    private final ArrayDeque<SlotRef> freeSlots = new ArrayDeque<>();
+
+    // Chest and slot of the last new stack planned, for the link's cursor
+    private BlockPos lastStartedChest;
+    private int lastStartedSlot = -1;
+
+    private static class SlotRef {
+        final BlockPos chest;
+        final IItemHandler handler;
+        final int slot;
+        ItemStack contents; // item the slot holds or is planned to hold, only read as a template
+        int count;
+
+        SlotRef(BlockPos chest, IItemHandler handler, int slot, ItemStack contents) {
+            this.chest = chest;
+            this.handler = handler;
+            this.slot = slot;
+            this.contents = contents;
+            this.count = contents.isEmpty() ? 0 : contents.getCount();
+        }
+
+        int getCapacity() {
+            return Math.min(contents.getMaxStackSize(), handler.getSlotLimit(slot));
+        }
+
+        boolean isFull() {
+            return !contents.isEmpty() && count >= getCapacity();
+        }
+    }
+
+    // Chests in round-robin order; free slots are used starting at startSlot of the first chest,
+    // and the slots before it come last
+    public ImporterSlotIndex(List<Map.Entry<BlockPos, IItemHandler>> chests, int startSlot) {
+        for (int i = 0; i < chests.size(); i++) {
+            Map.Entry<BlockPos, IItemHandler> chest = chests.get(i);
+            int fromSlot = i == 0 ? Math.min(startSlot, chest.getValue().getSlots()) : 0;
+            indexSlots(chest.getKey(), chest.getValue(), fromSlot, chest.getValue().getSlots());
+        }
+        if (!chests.isEmpty() && startSlot > 0) {
+            Map.Entry<BlockPos, IItemHandler> first = chests.get(0);
+            indexSlots(first.getKey(), first.getValue(), 0, Math.min(startSlot, first.getValue().getSlots()));
+        }
+    }
+
+    private void indexSlots(BlockPos chest, IItemHandler handler, int fromSlot, int toSlot) {
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            ItemStack stack = handler.getStackInSlot(slot);
+            SlotRef ref = new SlotRef(chest, handler, slot, stack);
+            if (stack.isEmpty()) {
+                freeSlots.add(ref);
+            } else if (!ref.isFull()) {
+                partialSlots.computeIfAbsent(stack.getItem(), k -> new ArrayList<>()).add(ref);
+            }
+        }
+    }
+
+    public boolean isFull() {
+        return freeSlots.isEmpty() && partialSlots.isEmpty();
+    }
+
+    public boolean hasRoomFor(ItemStack stack) {
+        return !freeSlots.isEmpty() || partialSlots.containsKey(stack.getItem());
+    }
+
+    // Plans up to count items of the source stack into this importer and returns how many were planned
+    public int plan(BlockPos sourceChest, IItemHandler source, int sourceSlot, ItemStack stack, int count, TransferPlan plan) {
+        Item item = stack.getItem();
+        int remaining = count;
+
+        // Top up slots that already hold this item
+        List<SlotRef> partial = partialSlots.get(item);
+        if (partial != null) {
+            Iterator<SlotRef> iterator = partial.iterator();
+            while (iterator.hasNext() && remaining > 0) {
+                SlotRef ref = iterator.next();
+                // Same item but different tags
+                if (!ItemHandlerHelper.canItemStacksStack(ref.contents, stack)) continue;
+
+                int planned = Math.min(remaining, ref.getCapacity() - ref.count);
+                if (planned > 0) {
+                    plan.addMove(sourceChest, source, sourceSlot, ref.chest, ref.handler, ref.slot, planned);
+                    ref.count += planned;
+                    remaining -= planned;
+                }
+                if (ref.isFull()) {
+                    iterator.remove();
+                }
+            }
+            if (partial.isEmpty()) {
+                partialSlots.remove(item);
+            }
+        }
+
+        // Then start new stacks in empty slots
+        Iterator<SlotRef> iterator = freeSlots.iterator();
+        while (iterator.hasNext() && remaining > 0) {
+            SlotRef ref = iterator.next();
+            // Slot does not accept this item - keep it free for others
+            if (!ref.handler.isItemValid(ref.slot, stack)) continue;
+            int planned = Math.min(remaining, Math.min(stack.getMaxStackSize(), ref.handler.getSlotLimit(ref.slot)));
+            if (planned <= 0) continue;
+
+            iterator.remove();
+            ref.contents = stack.copy();
+            plan.addMove(sourceChest, source, sourceSlot, ref.chest, ref.handler, ref.slot, planned);
+            ref.count = planned;
+            remaining -= planned;
+            lastStartedChest = ref.chest;
+            lastStartedSlot = ref.slot;
+
+            if (!ref.isFull()) {
+                partialSlots.computeIfAbsent(item, k -> new ArrayList<>()).add(ref);
+            }
+        }
+
+        return count - remaining;
+    }
+
+    // Null until a new stack is planned
+    public BlockPos getLastStartedChest() {
+        return lastStartedChest;
+    }
+
+    public int getLastStartedSlot() {
+        return lastStartedSlot;
+    }
+}
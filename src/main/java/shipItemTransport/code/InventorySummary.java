@@ -0,0 +1,69 @@
+package shipItemTransport.code;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.BitSet;
+
+// Contents of one chest group: item total, which slots are occupied and how much room is left.
+// Built from a full slot scan and kept until the chest reports a change (or it gets too old),
+// so empty exporters and full importers are known without touching their slots.
+public class InventorySummary {
+    private final BitSet occupiedSlots;
+    private final int slotCount;
+    private final long builtTick;
+    private int totalItems = 0;
+    private int freeCapacity = 0;
+    private boolean stale = false;
+
+    private InventorySummary(int slotCount, long builtTick) {
+        this.slotCount = slotCount;
+        this.builtTick = builtTick;
+        this.occupiedSlots = new BitSet(slotCount);
+    }
+
+    public static InventorySummary build(IItemHandler handler, long currentTick) {
+        InventorySummary summary = new InventorySummary(handler.getSlots(), currentTick);
+
+        for (int slot = 0; slot < summary.slotCount; slot++) {
+            ItemStack stack = handler.getStackInSlot(slot);
+            int slotLimit = handler.getSlotLimit(slot);
+            if (stack.isEmpty()) {
+                summary.freeCapacity += Math.min(slotLimit, 64);
+                continue;
+            }
+
+            summary.occupiedSlots.set(slot);
+            summary.totalItems += stack.getCount();
+            summary.freeCapacity += Math.max(0, Math.min(stack.getMaxStackSize(), slotLimit) - stack.getCount());
+        }
+
+        return summary;
+    }
+
+    // Still describes the inventory: no change reported, not too old and the slot count is unchanged
+    public boolean isValid(IItemHandler handler, long currentTick, int maxAgeTicks) {
+        return !stale && currentTick - builtTick < maxAgeTicks && handler.getSlots() == slotCount;
+    }
+
+    public void markStale() {
+        stale = true;
+    }
+
+    public boolean isEmpty() {
+        return totalItems == 0;
+    }
+
+    public boolean isFull() {
+        return freeCapacity == 0;
+    }
+
+    // Next occupied slot at or after the given one, -1 if there is none
+    public int nextOccupiedSlot(int fromSlot) {
+        return occupiedSlots.nextSetBit(fromSlot);
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+}
@@ -10,6 +10,7 @@ import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
@@ -23,6 +24,20 @@ public class Logger {
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final Pattern FILE_NUMBER_PATTERN = Pattern.compile(FILE_PREFIX + "(\\d+)" + FILE_EXTENSION);
 
+    // Worker threads queue their messages; the server thread writes them out in flushDeferred
+    private static final ThreadLocal<Boolean> deferred = ThreadLocal.withInitial(() -> false);
+    private static final ConcurrentLinkedQueue<DeferredMessage> deferredMessages = new ConcurrentLinkedQueue<>();
+
+    private static class DeferredMessage {
+        final String message;
+        final boolean outputToPlayers;
+
+        DeferredMessage(String message, boolean outputToPlayers) {
+            this.message = message;
+            this.outputToPlayers = outputToPlayers;
+        }
+    }
+
     static {
         initializeLogger();
     }
@@ -77,6 +92,11 @@ public class Logger {
     }
 
     public static void sendMessage(String message, boolean outputToPlayers) {
+        if (deferred.get()) {
+            deferredMessages.add(new DeferredMessage(message, outputToPlayers));
+            return;
+        }
+
         if (newFile && Config.CREATE_LOG_FILES) {
             currentFileNumber++;
             openCurrentLogFile();
@@ -96,6 +116,18 @@ public class Logger {
         }
     }
 
+    // Called once by threads that are not allowed to write logs themselves
+    public static void deferOnThisThread() {
+        deferred.set(true);
+    }
+
+    public static void flushDeferred() {
+        DeferredMessage deferredMessage;
+        while ((deferredMessage = deferredMessages.poll()) != null) {
+            sendMessage(deferredMessage.message, deferredMessage.outputToPlayers);
+        }
+    }
+
     private static void writeToLogFile(String message) {
         if (currentWriter != null && Config.CREATE_LOG_FILES) {
             String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
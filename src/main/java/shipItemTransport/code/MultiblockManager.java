@@ -1,7 +1,21 @@
 package shipItemTransport.code;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.Level;
@@ -11,10 +25,12 @@ import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.network.PacketDistributor;
+import org.joml.Quaterniond;
 import org.joml.Vector3d;
 import org.valkyrienskies.core.api.ships.Ship;
 import org.valkyrienskies.core.apigame.world.ShipWorldCore;
@@ -22,27 +38,70 @@ import org.valkyrienskies.mod.common.VSGameUtilsKt;
 import org.joml.primitives.AABBic;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 public class MultiblockManager {
-    private final Map<String, MultiblockData> multiblocks = new HashMap<>();
-    private final Map<BlockPos, String> blockToMultiblock = new HashMap<>();
-    private final Map<String, Boolean> multiblockModes = new HashMap<>(); // true = import, false = export
+    // Multiblock registry, keyed by handle
+    private final Int2ObjectOpenHashMap<MultiblockData> multiblocks = new Int2ObjectOpenHashMap<>();
+    private final Long2IntOpenHashMap blockToMultiblock = new Long2IntOpenHashMap(); // keyed by BlockPos.asLong, returns NO_MULTIBLOCK for untracked blocks
+    private int nextHandle = 1; // handles are handed out in order; the counter is saved with the registry
+    private final Map<String, Integer> legacyHandles = new HashMap<>(); // string ids from before handles, saved with the registry
 
     // Chest tracking
-    private final Map<String, Set<BlockPos>> multiblockChests = new HashMap<>();
-    private final Map<BlockPos, Set<String>> chestToMultiblocks = new HashMap<>();
-    private final Map<BlockPos, Set<BlockPos>> chestGroups = new HashMap<>();
-    private final Map<BlockPos, BlockPos> chestToPrimary = new HashMap<>();
+    // Chest structures are keyed by BlockPos.asLong of the (primary) chest
+    private final Long2ObjectOpenHashMap<IntSet> chestToMultiblocks = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<LongSet> chestGroups = new Long2ObjectOpenHashMap<>();
+    private final Long2LongOpenHashMap chestToPrimary = new Long2LongOpenHashMap(); // returns NO_POS for untracked chests
+    private final Long2ObjectOpenHashMap<InventorySummary> chestSummaries = new Long2ObjectOpenHashMap<>(); // contents per chest group, keyed by primary chest
+    private final Long2ObjectOpenHashMap<LazyOptional<IItemHandler>> chestHandlers = new Long2ObjectOpenHashMap<>(); // item handler capability per chest group, keyed by primary chest
     private static Map<Level, MultiblockManager> multiblockManagers = new WeakHashMap<Level, MultiblockManager>();
     private final Level level;
+    private MultiblockSavedData savedData; // null on the client
 
     // Transfer system
-    private final Map<String, MultiblockTransferData> transferDataCache = new HashMap<>();
-    private int transferTickCounter = 0;
+    private final SpatialHashGrid<Integer> groundIndex = new SpatialHashGrid<>(Config.BROADPHASE_CELL_SIZE); // ground multiblocks, kept between cycles
+    private ShipTransformSnapshot shipSnapshot = new ShipTransformSnapshot(); // ship poses for the current cycle
+    private final TransferScheduler transferScheduler = new TransferScheduler(); // transfer work spread over ticks
+    private final Long2ObjectOpenHashMap<TransferLink> transferLinks = new Long2ObjectOpenHashMap<>(); // matched exporter/importer pairs, keyed by TransferLink.key
+    private final Int2ObjectOpenHashMap<List<TransferLink>> linksByMultiblock = new Int2ObjectOpenHashMap<>(); // transferLinks by exporter and by importer
+    private final PriorityQueue<ScheduledLink> linkQueue = new PriorityQueue<>(); // links by next run tick, drained every tick
+    private final List<TransferLink> dueLinks = new ArrayList<>(); // taken off the queue, including links carried over from earlier ticks
+    private int transferTickCounter;
+    private long managerTick = 0;
+
+    // Stats since the last transfer cycle started
+    private int cyclePairsChecked = 0;
+    private int cycleLinksOpened = 0;
+    private int cycleTransfersExecuted = 0;
+    private int cycleSessionsReused = 0;
+    private int cycleLinksThrottled = 0;
+
+    // Block placements and removals of this tick, keyed by BlockPos.asLong and applied at the end of the tick
+    private final LongOpenHashSet pendingPlacements = new LongOpenHashSet();
+    private final LongOpenHashSet pendingRemovals = new LongOpenHashSet();
+    private final Int2ObjectOpenHashMap<PendingRehydration> pendingRehydrations = new Int2ObjectOpenHashMap<>(); // by saved handle
+
+    // Stale multiblocks of the current cycle while their transfer data is calculated on the planner pool
+    private List<TransferDataJob> transferDataJobs = null;
+    private CompletableFuture<List<TransferDataJob>> pendingTransferData = null;
+
+    // Candidate pairs of the current cycle while their checks run on the planner pool
+    private List<TransferPlanner.PairCheck> pendingPairs = null;
+    private CompletableFuture<List<TransferPlanner.PairCheck>> pendingPairChecks = null;
+
+    public static final int NO_MULTIBLOCK = 0; // handle of "not part of a multiblock"
+    private static final int TRANSFER_INTERVAL_TICKS = 50;
+    private static final long NO_POS = Long.MIN_VALUE; // missing entry in packed position maps
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static int managersCreated = 0;
+    private static long serverTicks = 0;
 
     public MultiblockManager(Level level) {
         this.level = level;
+        chestToPrimary.defaultReturnValue(NO_POS);
+        blockToMultiblock.defaultReturnValue(NO_MULTIBLOCK);
+        // Stagger the cycle start per dimension so all managers don't start a cycle on the same tick
+        this.transferTickCounter = (managersCreated++ * 17) % TRANSFER_INTERVAL_TICKS;
     }
 
     public static MultiblockManager get(Level level) {
@@ -51,32 +110,87 @@ public class MultiblockManager {
         }
         MultiblockManager manager = new MultiblockManager(level);
         multiblockManagers.put(level, manager);
+        if (level instanceof ServerLevel serverLevel) {
+            manager.savedData = MultiblockSavedData.attach(serverLevel, manager);
+        }
         return manager;
     }
 
     @SubscribeEvent
     public void onServerTick(TickEvent.ServerTickEvent event) {
         if (event.phase == TickEvent.Phase.END) {
-            for (MultiblockManager manager : multiblockManagers.values()) {
-                manager.tick();
+            Logger.flushDeferred();
+
+            // Every dimension's due links are counted before any of them runs, so the server budget can be shared evenly
+            List<MultiblockManager> managers = new ArrayList<>(multiblockManagers.values());
+            int dueLinks = 0;
+            for (MultiblockManager manager : managers) {
+                dueLinks += manager.collectDueLinks();
+            }
+            ServerTransferBudget.beginTick(Config.SERVER_MAX_ITEMS_PER_TICK, dueLinks);
+
+            // Rotate which dimension goes first so none always gets the server budget before the others
+            int first = managers.isEmpty() ? 0 : (int) (serverTicks++ % managers.size());
+            for (int i = 0; i < managers.size(); i++) {
+                managers.get((first + i) % managers.size()).tick();
+            }
+        }
+    }
+
+    // Starts the manager's tick: takes the links that are due off the queue and returns how many are waiting
+    // to run, counting the ones the link time budget carried over. Carried over links stay at the front.
+    public int collectDueLinks() {
+        if (level.isClientSide) return 0;
+        managerTick++;
+        while (!linkQueue.isEmpty() && linkQueue.peek().tick <= managerTick) {
+            ScheduledLink entry = linkQueue.poll();
+            TransferLink link = entry.link;
+            if (link.isQueuedFor(entry.tick) && transferLinks.get(TransferLink.key(link.exporterId, link.importerId)) == link) {
+                dueLinks.add(link);
             }
         }
+        return dueLinks.size();
     }
 
     public void tick() {
         if (level.isClientSide) return;
+        processPendingBlockChanges();
 
+        // A new cycle only starts once the previous one has been fully worked off
         transferTickCounter++;
-        if (transferTickCounter >= 50) {
+        if (transferTickCounter >= TRANSFER_INTERVAL_TICKS && transferScheduler.isIdle() &&
+                transferDataJobs == null && pendingPairChecks == null) {
             transferTickCounter = 0;
-            runItemTransfers();
+            startTransferCycle();
+        }
+
+        // Transfer data and pair checks planned off-thread are applied once all of them are done - the server
+        // thread never waits
+        if (pendingTransferData != null && pendingTransferData.isDone()) {
+            queueCalculatedTransferData();
+        }
+        if (pendingPairChecks != null && pendingPairChecks.isDone()) {
+            queuePlannedPairs();
+        }
+
+        // Links run on their own schedule, independent of the cycle
+        runDueLinks();
+
+        if (!transferScheduler.isIdle()) {
+            transferScheduler.runWithinBudget(Config.TRANSFER_TICK_BUDGET_MICROS * 1000L);
+            if (!transferScheduler.isIdle()) {
+                Logger.sendMessage(String.format("Transfer budget used (%d units in %d us), %d units carried over",
+                        transferScheduler.getLastUnitsRun(), transferScheduler.getLastNanosUsed() / 1000,
+                        transferScheduler.getPendingCount()), true);
+            }
         }
     }
 
     // Transfer data class
-    private static class MultiblockTransferData {
-        public final String multiblockId;
-        public final Set<BlockPos> blocks;
+    static class MultiblockTransferData {
+        public final int multiblockId;
+        public final PlanarShape shape; // blocks as of this calculation
+        public final PlanarShape faceShape; // blocks projected onto the world plane across worldFacing, snapped to whole blocks
         public final boolean isOnShip;
         public final Long shipId;
         public final Direction worldFacing;
@@ -85,12 +199,18 @@ public class MultiblockManager {
         public final int blockCount;
         public final Set<BlockPos> chests;
         public final Vec3 center;
+        public final OrientedBox worldOBB; // extended box in world space, used by the narrowphase and alignment
+        public final AABB worldBounds; // world-aligned box around worldOBB plus the docking hysteresis, used by the broadphase
+        public final Vector3d shipPosition; // ship pose this data was calculated for, null on ground
+        public final Quaterniond shipRotation;
 
-        public MultiblockTransferData(String multiblockId, Set<BlockPos> blocks, boolean isOnShip,
+        public MultiblockTransferData(int multiblockId, PlanarShape shape, PlanarShape faceShape, boolean isOnShip,
                                       Long shipId, Direction worldFacing, AABB extendedOBB,
-                                      boolean isImportMode, int blockCount, Set<BlockPos> chests, Vec3 center) {
+                                      boolean isImportMode, int blockCount, Set<BlockPos> chests, Vec3 center,
+                                      OrientedBox worldOBB, Vector3d shipPosition, Quaterniond shipRotation) {
             this.multiblockId = multiblockId;
-            this.blocks = blocks;
+            this.shape = shape;
+            this.faceShape = faceShape;
             this.isOnShip = isOnShip;
             this.shipId = shipId;
             this.worldFacing = worldFacing;
@@ -99,165 +219,835 @@ public class MultiblockManager {
             this.blockCount = blockCount;
             this.chests = chests;
             this.center = center;
+            this.worldOBB = worldOBB;
+            this.worldBounds = worldOBB.getWorldBounds().inflate(Config.DOCKING_HYSTERESIS);
+            this.shipPosition = shipPosition;
+            this.shipRotation = shipRotation;
         }
     }
 
-    // Data class for persistent multiblock storage
+    // Registry record of a multiblock - mode, blocks, chests, ship and cached transfer data in one lookup
     private static class MultiblockData {
-        public final String id;
-        public final Set<BlockPos> blocks;
-        public final boolean isOnShip;
-        public final Long shipId; // null if on ground
-
-        public MultiblockData(String id, Set<BlockPos> blocks, boolean isOnShip, Long shipId) {
-            this.id = id;
+        public final int handle;
+        // Packed with BlockPos.asLong, changed through addBlock, removeBlock and setBlocks. This stays the stored
+        // form: splits, merges, the block index and saving all need hash lookups of single blocks
+        public LongSet blocks;
+        public boolean isOnShip;
+        public Long shipId; // null if on ground
+        public boolean importMode; // true = import, false = export
+        public final Set<BlockPos> chests = new HashSet<>(); // primary chest of each connected chest group
+        public MultiblockTransferData transferData; // null until the first cycle calculates it
+        public boolean transferDataDirty = false; // transferData is stale
+        public Direction facing; // local facing, the same for every block; null until read from a loaded block
+
+        // Local box of the blocks, grown on every add; only removing a block on its edge makes it stale
+        private int minX, minY, minZ, maxX, maxY, maxZ;
+        private boolean boundsStale = true;
+        private PlanarShape shape; // derived from blocks for the alignment check, null after the blocks changed
+        FaceProjection faceProjection; // shape across the world face for the last ship pose, null on ground
+
+        public MultiblockData(int handle, LongSet blocks, boolean isOnShip, Long shipId, boolean importMode) {
+            this.handle = handle;
             this.blocks = blocks;
             this.isOnShip = isOnShip;
             this.shipId = shipId;
+            this.importMode = importMode;
+        }
+
+        public void addBlock(long pos) {
+            if (!blocks.add(pos)) return;
+            shape = null;
+            if (boundsStale) return;
+            int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+
+        public void removeBlock(long pos) {
+            if (!blocks.remove(pos)) return;
+            shape = null;
+            if (boundsStale) return;
+            int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+            if (x == minX || x == maxX || y == minY || y == maxY || z == minZ || z == maxZ) {
+                boundsStale = true;
+            }
+        }
+
+        public void setBlocks(LongSet blocks) {
+            this.blocks = blocks;
+            shape = null;
+            boundsStale = true;
+        }
+
+        // Block bounds in the coordinates the blocks live in
+        public AABB getLocalBounds() {
+            if (boundsStale) {
+                minX = minY = minZ = Integer.MAX_VALUE;
+                maxX = maxY = maxZ = Integer.MIN_VALUE;
+                LongIterator iterator = blocks.iterator();
+                while (iterator.hasNext()) {
+                    long pos = iterator.nextLong();
+                    int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    minZ = Math.min(minZ, z);
+                    maxX = Math.max(maxX, x);
+                    maxY = Math.max(maxY, y);
+                    maxZ = Math.max(maxZ, z);
+                }
+                boundsStale = false;
+            }
+            return new AABB(minX, minY, minZ, maxX + 1, maxY + 1, maxZ + 1);
+        }
+
+        // Shape of the blocks on the plane across the facing, rebuilt only after the blocks changed
+        public PlanarShape getShape(Direction localFacing) {
+            if (shape == null || shape.getAxis() != localFacing.getAxis()) {
+                shape = PlanarShape.of(blocks, localFacing.getAxis());
+            }
+            return shape;
+        }
+    }
+
+    // Loaded block entities of one multiblock waiting to be registered
+    private static class PendingRehydration {
+        final LongSet blocks = new LongOpenHashSet();
+        final boolean importMode;
+
+        PendingRehydration(boolean importMode) {
+            this.importMode = importMode;
+        }
+    }
+
+    // Transfer data calculation of one stale multiblock. Everything the planner reads is captured on the
+    // server thread; the result is stored there later unless the multiblock was removed or replaced meanwhile.
+    private static class TransferDataJob {
+        final MultiblockData data;
+        final PlanarShape shape;
+        final Direction localFacing;
+        final AABB extendedOBB; // local coordinates
+        final ShipTransformSnapshot.ShipPose pose; // null on ground or when the ship is missing from the snapshot
+        final FaceProjection previousProjection;
+        final boolean isOnShip;
+        final Long shipId;
+        final boolean importMode;
+        final Set<BlockPos> chests;
+
+        // Results, null until calculated
+        FaceProjection faceProjection;
+        MultiblockTransferData transferData;
+
+        TransferDataJob(MultiblockData data, PlanarShape shape, Direction localFacing, AABB extendedOBB,
+                        ShipTransformSnapshot.ShipPose pose) {
+            this.data = data;
+            this.shape = shape;
+            this.localFacing = localFacing;
+            this.extendedOBB = extendedOBB;
+            this.pose = pose;
+            this.previousProjection = data.faceProjection;
+            this.isOnShip = data.isOnShip;
+            this.shipId = data.shipId;
+            this.importMode = data.importMode;
+            this.chests = data.chests;
+        }
+    }
+
+    // Entry of the link queue; entries left behind by a link that was woken, rescheduled or removed are skipped
+    private static class ScheduledLink implements Comparable<ScheduledLink> {
+        final long tick;
+        final TransferLink link;
+
+        ScheduledLink(long tick, TransferLink link) {
+            this.tick = tick;
+            this.link = link;
+        }
+
+        @Override
+        public int compareTo(ScheduledLink other) {
+            return Long.compare(tick, other.tick);
         }
     }
 
-    // Transfer system implementation
-    private void runItemTransfers() {
+    // Transfer system implementation.
+    // A cycle is queued as work units on the scheduler: one capture per stale multiblock, then one unit storing
+    // each recalculated multiblock, then candidate matching, then one unit per new candidate pair, then the
+    // cycle summary. The transfer data calculation runs on the planner pool between capturing and storing,
+    // the geometry checks of the candidate pairs between matching and the pair units.
+    // Pairs that passed become links, which from then on run from the link queue whenever they are due.
+    private void startTransferCycle() {
+        Logger.sendMessage(String.format("Since the last cycle - Pairs checked: %d, Links opened: %d, Transfers executed: %d, Docking sessions reused: %d, Links throttled: %d, Links: %d",
+                cyclePairsChecked, cycleLinksOpened, cycleTransfersExecuted, cycleSessionsReused, cycleLinksThrottled, transferLinks.size()), true);
         Logger.sendMessage("=== Starting transfer cycle ===", true);
+        cyclePairsChecked = 0;
+        cycleLinksOpened = 0;
+        cycleTransfersExecuted = 0;
+        cycleSessionsReused = 0;
+        cycleLinksThrottled = 0;
+
+        // Capture every relevant ship pose once - all geometry below reads from this snapshot
+        Set<Long> shipIds = new HashSet<>();
+        for (MultiblockData data : multiblocks.values()) {
+            if (data.isOnShip && data.shipId != null) {
+                shipIds.add(data.shipId);
+            }
+        }
+        shipSnapshot = ShipTransformSnapshot.capture(level, shipIds);
+        Logger.sendMessage("Ships in snapshot: " + shipSnapshot.size(), true);
+
+        // Pre-calculate transfer data for all multiblocks; candidate matching follows once it is stored
+        queueTransferDataUpdates();
+    }
+
+    private void queueCandidatePairs() {
+        // Partition ship multiblocks by ship - ground multiblocks are already in groundIndex.
+        // Two ground multiblocks or two on the same ship can never transfer, so those pairs are never built.
+        Map<Long, List<MultiblockTransferData>> shipGroups = new HashMap<>();
+        Map<Long, AABB> shipBounds = new HashMap<>();
+        int cached = 0;
+        for (MultiblockData multiblock : multiblocks.values()) {
+            MultiblockTransferData data = multiblock.transferData;
+            if (data == null) continue;
+            cached++;
+            if (!isShipTransferData(data)) continue;
+            shipGroups.computeIfAbsent(data.shipId, k -> new ArrayList<>()).add(data);
+            AABB bounds = shipBounds.get(data.shipId);
+            shipBounds.put(data.shipId, bounds == null ? data.worldBounds : bounds.minmax(data.worldBounds));
+        }
+
+        Logger.sendMessage("Multiblocks in cache: " + cached, true);
+
+        int pairsQueued = 0;
+        int pairsLinked = 0;
+        Set<Long> activeShips = new HashSet<>();
+        List<TransferPlanner.PairCheck> candidates = new ArrayList<>();
+
+        // Ship/ship - only ships whose transporter boxes overlap descend to multiblock pairs
+        SpatialHashGrid<Long> shipGrid = new SpatialHashGrid<>(Config.BROADPHASE_CELL_SIZE);
+        for (Map.Entry<Long, AABB> entry : shipBounds.entrySet()) {
+            shipGrid.insert(entry.getKey(), entry.getValue());
+        }
+        List<SpatialHashGrid.Pair<Long>> shipPairs = shipGrid.findCandidatePairs();
+
+        for (SpatialHashGrid.Pair<Long> shipPair : shipPairs) {
+            activeShips.add(shipPair.first);
+            activeShips.add(shipPair.second);
+
+            for (MultiblockTransferData data1 : shipGroups.get(shipPair.first)) {
+                for (MultiblockTransferData data2 : shipGroups.get(shipPair.second)) {
+                    if (!data1.worldBounds.intersects(data2.worldBounds)) continue;
+                    if (isLinked(data1, data2)) {
+                        pairsLinked++;
+                        continue;
+                    }
 
-        // Pre-calculate transfer data for all multiblocks
-        updateTransferDataCache();
+                    pairsQueued++;
+                    candidates.add(new TransferPlanner.PairCheck(data1, data2));
+                }
+            }
+        }
 
-        // Get all multiblocks for iteration
-        List<MultiblockTransferData> allMultiblocks = new ArrayList<>(transferDataCache.values());
-        Logger.sendMessage("Multiblocks in cache: " + allMultiblocks.size(), true);
+        // Ship/ground - skip the whole ship unless its box touches a ground multiblock
+        List<Integer> groundCandidates = new ArrayList<>();
+        for (Map.Entry<Long, List<MultiblockTransferData>> shipGroup : shipGroups.entrySet()) {
+            if (!groundIndex.intersectsAny(shipBounds.get(shipGroup.getKey()))) continue;
+            activeShips.add(shipGroup.getKey());
 
-        int pairsChecked = 0;
-        int transfersExecuted = 0;
+            for (MultiblockTransferData shipData : shipGroup.getValue()) {
+                groundCandidates.clear();
+                groundIndex.query(shipData.worldBounds, groundCandidates);
 
-        // Check each pair
-        for (int i = 0; i < allMultiblocks.size(); i++) {
-            for (int j = i + 1; j < allMultiblocks.size(); j++) {
-                pairsChecked++;
-                MultiblockTransferData data1 = allMultiblocks.get(i);
-                MultiblockTransferData data2 = allMultiblocks.get(j);
+                for (int groundId : groundCandidates) {
+                    MultiblockTransferData groundData = getTransferData(groundId);
+                    if (groundData == null) continue;
+                    if (isLinked(shipData, groundData)) {
+                        pairsLinked++;
+                        continue;
+                    }
 
-                if (shouldTransferBetween(data1, data2)) {
-                    transfersExecuted++;
-                    executeItemTransfer(data1, data2);
+                    pairsQueued++;
+                    candidates.add(new TransferPlanner.PairCheck(shipData, groundData));
                 }
             }
         }
 
-        Logger.sendMessage(String.format("Pairs checked: %d, Transfers executed: %d", pairsChecked, transfersExecuted), true);
-        Logger.sendMessage("=== Transfer cycle complete ===", true);
+        // Every pair that could ever transfer: multiblocks on different ships, and ship with ground
+        long shipMultiblocks = 0, sameShipPairs = 0;
+        for (List<MultiblockTransferData> group : shipGroups.values()) {
+            shipMultiblocks += group.size();
+            sameShipPairs += (long) group.size() * group.size();
+        }
+        long possiblePairs = (shipMultiblocks * shipMultiblocks - sameShipPairs) / 2 + shipMultiblocks * groundIndex.size();
+        long pairsPruned = possiblePairs - pairsQueued - pairsLinked;
+
+        Logger.sendMessage(String.format("Ships: %d (%d with candidates, %d ship pairs), Ground multiblocks indexed: %d",
+                shipGroups.size(), activeShips.size(), shipPairs.size(), groundIndex.size()), true);
+        Logger.sendMessage(String.format("Possible pairs: %d, Pruned by broadphase: %d, Candidates: %d (already linked: %d, queued: %d)",
+                possiblePairs, pairsPruned, pairsQueued + pairsLinked, pairsLinked, pairsQueued), true);
+
+        pendingPairs = candidates;
+        pendingPairChecks = TransferPlanner.plan(candidates, this::checkPair);
     }
 
-    private void updateTransferDataCache() {
-        transferDataCache.clear();
+    // Linked pairs are run and revalidated by the link queue; the cycle only looks for new pairs
+    private boolean isLinked(MultiblockTransferData data1, MultiblockTransferData data2) {
+        MultiblockTransferData exporter = data1.isImportMode ? data2 : data1;
+        MultiblockTransferData importer = data1.isImportMode ? data1 : data2;
+        return transferLinks.containsKey(TransferLink.key(exporter.multiblockId, importer.multiblockId));
+    }
 
-        for (Map.Entry<String, MultiblockData> entry : multiblocks.entrySet()) {
-            String multiblockId = entry.getKey();
-            MultiblockData data = entry.getValue();
+    private void queuePlannedPairs() {
+        if (pendingPairChecks.isCompletedExceptionally()) {
+            // Pairs that were not planned are checked on the server thread instead
+            Logger.sendMessage("Transfer planning failed, checking remaining pairs on the server thread", false);
+        }
 
-            // Calculate world-facing direction
-            Direction worldFacing = calculateWorldFacing(data);
+        for (TransferPlanner.PairCheck pair : pendingPairs) {
+            transferScheduler.enqueue(() -> openTransferLink(pair));
+        }
+        transferScheduler.enqueue(this::finishTransferCycle);
 
-            // Calculate extended OBB
-            AABB extendedOBB = calculateExtendedOBB(data, worldFacing);
+        pendingPairs = null;
+        pendingPairChecks = null;
+    }
 
-            // FIXED: Calculate center point in WORLD coordinates
-            Vec3 center = calculateWorldCenter(data, extendedOBB);
+    // Full check of a candidate pair. May run on a planner worker, so it only reads the pair's transfer data.
+    private TransferPlanner.PairCheck checkPair(TransferPlanner.PairCheck pair) {
+        MultiblockTransferData exporter = pair.first.isImportMode ? pair.second : pair.first;
+        MultiblockTransferData importer = pair.first.isImportMode ? pair.first : pair.second;
 
-            // Get other data
-            boolean isImportMode = getMultiblockMode(multiblockId);
-            int blockCount = data.blocks.size();
-            Set<BlockPos> chests = multiblockChests.getOrDefault(multiblockId, new HashSet<>());
+        pair.passes = shouldTransferBetween(pair.first, pair.second);
+        pair.stillDocked = pair.passes || isStillDocked(exporter, importer);
+        if (pair.stillDocked) {
+            pair.facingPairs = exporter.faceShape.countOverlap(importer.faceShape);
+            pair.alignmentPercent = calculateAlignmentPercent(exporter, importer, pair.facingPairs);
+            pair.transferAmount = calculateTransferAmount(pair.facingPairs);
+        }
+        pair.planned = true;
+        return pair;
+    }
 
-            MultiblockTransferData transferData = new MultiblockTransferData(
-                    multiblockId, data.blocks, data.isOnShip, data.shipId,
-                    worldFacing, extendedOBB, isImportMode, blockCount, chests, center
-            );
+    // A new candidate pair that passed its check becomes a link, due right away.
+    // Skipped if either side was removed or recalculated since it was queued.
+    private void openTransferLink(TransferPlanner.PairCheck pair) {
+        MultiblockTransferData data1 = pair.first;
+        MultiblockTransferData data2 = pair.second;
+        if (getTransferData(data1.multiblockId) != data1 || getTransferData(data2.multiblockId) != data2) {
+            return;
+        }
 
-            transferDataCache.put(multiblockId, transferData);
+        MultiblockTransferData exporter = data1.isImportMode ? data2 : data1;
+        MultiblockTransferData importer = data1.isImportMode ? data1 : data2;
+        long linkKey = TransferLink.key(exporter.multiblockId, importer.multiblockId);
+        if (transferLinks.containsKey(linkKey)) return;
 
-            Logger.sendMessage(String.format("Multiblock %s: blocks=%d, facing=%s, mode=%s, onShip=%s, chests=%d, center=%s",
-                    multiblockId, blockCount, worldFacing, isImportMode ? "IMPORT" : "EXPORT",
-                    data.isOnShip, chests.size(), center.toString()), true);
+        cyclePairsChecked++;
+        if (!pair.planned) {
+            // Planning failed - check on the server thread
+            checkPair(pair);
         }
+        if (!pair.passes) return;
+
+        // Links opened in the same cycle would otherwise all run on the same ticks from then on
+        TransferLink link = new TransferLink(exporter.multiblockId, importer.multiblockId, Config.LINK_BASE_INTERVAL_TICKS,
+                managerTick + linkPhase(linkKey));
+        link.setSession(openDockingSession(exporter, importer, pair.alignmentPercent, pair.transferAmount));
+        addTransferLink(linkKey, link);
+        scheduleLink(link);
+        cycleLinksOpened++;
     }
 
-    private Vec3 calculateWorldCenter(MultiblockData data, AABB localOBB) {
-        if (!data.isOnShip || data.shipId == null) {
-            // Ground multiblock - center is just the midpoint of the local OBB
-            return new Vec3(
-                    localOBB.minX + (localOBB.maxX - localOBB.minX) / 2,
-                    localOBB.minY + (localOBB.maxY - localOBB.minY) / 2,
-                    localOBB.minZ + (localOBB.maxZ - localOBB.minZ) / 2
-            );
+    private void addTransferLink(long linkKey, TransferLink link) {
+        transferLinks.put(linkKey, link);
+        linksByMultiblock.computeIfAbsent(link.exporterId, id -> new ArrayList<>()).add(link);
+        linksByMultiblock.computeIfAbsent(link.importerId, id -> new ArrayList<>()).add(link);
+    }
+
+    private void removeTransferLink(TransferLink link) {
+        transferLinks.remove(TransferLink.key(link.exporterId, link.importerId));
+        unindexLink(link.exporterId, link);
+        unindexLink(link.importerId, link);
+    }
+
+    private void unindexLink(int multiblockId, TransferLink link) {
+        List<TransferLink> links = linksByMultiblock.get(multiblockId);
+        if (links != null && links.remove(link) && links.isEmpty()) {
+            linksByMultiblock.remove(multiblockId);
         }
+    }
 
-        // Ship multiblock - transform center from local to world coordinates
-        Ship ship = findShipById(data.shipId);
-        if (ship == null) {
-            // Fallback to local center if ship not found
-            return new Vec3(
-                    localOBB.minX + (localOBB.maxX - localOBB.minX) / 2,
-                    localOBB.minY + (localOBB.maxY - localOBB.minY) / 2,
-                    localOBB.minZ + (localOBB.maxZ - localOBB.minZ) / 2
-            );
+    // Drops every link the multiblock is part of, e.g. when it is removed or absorbed by a merge
+    private void removeTransferLinks(int multiblockId) {
+        List<TransferLink> links = linksByMultiblock.remove(multiblockId);
+        if (links == null) return;
+        for (TransferLink link : links) {
+            transferLinks.remove(TransferLink.key(link.exporterId, link.importerId));
+            unindexLink(link.exporterId == multiblockId ? link.importerId : link.exporterId, link);
         }
+    }
 
-        // Calculate local center
-        double centerX = localOBB.minX + (localOBB.maxX - localOBB.minX) / 2;
-        double centerY = localOBB.minY + (localOBB.maxY - localOBB.minY) / 2;
-        double centerZ = localOBB.minZ + (localOBB.maxZ - localOBB.minZ) / 2;
+    // Ticks a new link waits before its first run, spread over the base interval by its handles
+    private static int linkPhase(long linkKey) {
+        return Math.floorMod(Long.hashCode(linkKey * 0x9E3779B97F4A7C15L), Config.LINK_BASE_INTERVAL_TICKS);
+    }
 
-        // Transform to world coordinates
-        Vector3d localCenter = new Vector3d(centerX, centerY, centerZ);
-        Vector3d worldCenter = new Vector3d(localCenter);
-        ship.getTransform().getShipToWorld().transformPosition(worldCenter);
+    // Adds a queue entry for the link's next run tick unless it already has one
+    private void scheduleLink(TransferLink link) {
+        if (link.markQueued()) {
+            linkQueue.add(new ScheduledLink(link.getNextRunTick(), link));
+        }
+    }
 
-        Logger.sendMessage(String.format("Ship center transform: local(%.2f, %.2f, %.2f) -> world(%.2f, %.2f, %.2f)",
-                centerX, centerY, centerZ, worldCenter.x, worldCenter.y, worldCenter.z), true);
+    // Runs the collected links until the link time budget is used up; the rest stay collected for the next tick
+    // and give up their share of the server budget for this one. At least one link always runs.
+    // Links woken while these run are due next tick.
+    private void runDueLinks() {
+        long start = System.nanoTime();
+        long budgetNanos = Config.LINK_TICK_BUDGET_MICROS * 1000L;
+        int processed = 0;
+        while (processed < dueLinks.size()) {
+            if (processed > 0 && System.nanoTime() - start >= budgetNanos) break;
+            TransferLink link = dueLinks.get(processed++);
+            // Removed since it was collected, e.g. by a block change earlier in the tick
+            if (transferLinks.get(TransferLink.key(link.exporterId, link.importerId)) != link) {
+                ServerTransferBudget.cancel();
+                continue;
+            }
+            if (runDueLink(link)) {
+                scheduleLink(link);
+            } else {
+                ServerTransferBudget.cancel();
+                removeTransferLink(link);
+            }
+        }
 
-        return new Vec3(worldCenter.x, worldCenter.y, worldCenter.z);
+        int carriedOver = dueLinks.size() - processed;
+        for (int i = 0; i < carriedOver; i++) {
+            ServerTransferBudget.cancel();
+        }
+        dueLinks.subList(0, processed).clear();
+        if (carriedOver > 0) {
+            Logger.sendMessage(String.format("Link budget used (%d links in %d us), %d links carried over",
+                    processed, (System.nanoTime() - start) / 1000, carriedOver), true);
+        }
     }
 
+    // One run of a link: revalidate the docking, then transfer within the rate limits.
+    // Returns false once the pair is gone or has undocked; only then has it not asked the server budget.
+    private boolean runDueLink(TransferLink link) {
+        MultiblockTransferData exporter = getTransferData(link.exporterId);
+        MultiblockTransferData importer = getTransferData(link.importerId);
+        // Removed, unloaded, or the modes changed so the link no longer describes the pair
+        if (exporter == null || importer == null || exporter.isImportMode || !importer.isImportMode) {
+            return false;
+        }
 
+        DockingSession session = link.getSession();
+        if (session != null) {
+            // Established session - revalidate cheaply instead of running the full check
+            if (!revalidateDockingSession(session, exporter, importer)) {
+                return false;
+            }
+        } else {
+            // Session was dropped after a change on either side - check on the server thread
+            cyclePairsChecked++;
+            TransferPlanner.PairCheck pair = checkPair(new TransferPlanner.PairCheck(exporter, importer));
+            if (!pair.passes) {
+                return false;
+            }
+            session = openDockingSession(exporter, importer, pair.alignmentPercent, pair.transferAmount);
+            link.setSession(session);
+        }
+
+        // Rate limits: the link's own token bucket, then the server-wide budget for this tick
+        TokenBucket bucket = getLinkBucket(link, session.getTransferAmount());
+        bucket.refill(managerTick);
+        int allowance = ServerTransferBudget.acquire(Math.min(session.getTransferAmount(), bucket.getAvailable()));
+        if (session.getTransferAmount() > 0 && allowance <= 0) {
+            // Not idle, just out of tokens - try again without backing off: next tick when the server budget
+            // ran out, after the base interval when the link's own bucket is empty
+            cycleLinksThrottled++;
+            link.defer(managerTick + (bucket.getAvailable() > 0 ? 1 : Config.LINK_BASE_INTERVAL_TICKS));
+            Logger.sendMessage(String.format("Link %s throttled (bucket: %d items, server budget left: %d)",
+                    link, bucket.getAvailable(), ServerTransferBudget.getRemaining()), true);
+            return true;
+        }
+
+        cycleTransfersExecuted++;
+        int itemsMoved = executeItemTransfer(session, link.getCursor(), allowance);
+        bucket.consume(itemsMoved);
+        ServerTransferBudget.release(allowance - itemsMoved);
+        // Nothing wakes a link early when one of its chests cannot report changes, so it does not back off
+        int maxInterval = reportsContentChanges(session) ? Config.LINK_MAX_INTERVAL_TICKS : Config.LINK_BASE_INTERVAL_TICKS;
+        link.recordRun(itemsMoved, managerTick, Config.LINK_BASE_INTERVAL_TICKS, maxInterval);
+        if (itemsMoved == 0) {
+            Logger.sendMessage(String.format("Link %s idle, next run in %d ticks", link, link.getInterval()), true);
+        }
+        return true;
+    }
 
-    private Direction calculateWorldFacing(MultiblockData data) {
-        Logger.sendMessage("=== CALCULATING WORLD FACING ===", true);
+    private boolean reportsContentChanges(DockingSession session) {
+        for (BlockPos chestPos : session.getExporterHandlers().keySet()) {
+            if (!reportsContentChanges(chestPos.asLong())) return false;
+        }
+        for (BlockPos chestPos : session.getImporterHandlers().keySet()) {
+            if (!reportsContentChanges(chestPos.asLong())) return false;
+        }
+        return true;
+    }
 
-        if (!data.isOnShip || data.shipId == null) {
-            // Ground multiblock - use first block's facing
-            BlockPos firstPos = data.blocks.iterator().next();
-            BlockState state = level.getBlockState(firstPos);
-            Direction facing = Direction.NORTH;
-            if (state.hasProperty(ShipItemTransportBlock.FACING)) {
-                facing = state.getValue(ShipItemTransportBlock.FACING);
+    private void finishTransferCycle() {
+        Logger.sendMessage(String.format("Links opened: %d, Links: %d, Links queued: %d", cycleLinksOpened, transferLinks.size(), linkQueue.size()), true);
+        Logger.sendMessage("=== Transfer cycle complete ===", true);
+    }
+
+    // Puts every link of a multiblock back on the base interval
+    private void wakeTransferLinks(int multiblockId) {
+        List<TransferLink> links = linksByMultiblock.get(multiblockId);
+        if (links == null) return;
+        for (TransferLink link : links) {
+            link.wake(managerTick, Config.LINK_BASE_INTERVAL_TICKS);
+            scheduleLink(link);
+        }
+    }
+
+    // Something other than the ship pose changed (blocks, chests, mode) - put every link of the
+    // multiblock back on the base interval and drop its docking session so the pair is fully checked again
+    private void invalidateTransferLinks(int multiblockId) {
+        List<TransferLink> links = linksByMultiblock.get(multiblockId);
+        if (links == null) return;
+        for (TransferLink link : links) {
+            link.wake(managerTick, Config.LINK_BASE_INTERVAL_TICKS);
+            link.setSession(null);
+            scheduleLink(link);
+        }
+    }
+
+    private DockingSession openDockingSession(MultiblockTransferData exporter, MultiblockTransferData importer,
+                                              float alignmentPercent, int transferAmount) {
+        Logger.sendMessage(String.format("Docking session opened: %s -> %s", exporter.multiblockId, importer.multiblockId), true);
+        return new DockingSession(exporter, importer,
+                getItemHandlers(exporter.chests), getItemHandlers(importer.chests),
+                alignmentPercent, transferAmount);
+    }
+
+    // Returns false once the pair has undocked
+    private boolean revalidateDockingSession(DockingSession session, MultiblockTransferData exporter, MultiblockTransferData importer) {
+        // Neither side was recalculated since the last transfer
+        if (session.isCurrent(exporter, importer)) {
+            cycleSessionsReused++;
+            return true;
+        }
+
+        // Recalculated because a ship moved, but still close to the pose of the last full check
+        if (session.isWithinTolerance(exporter, importer, Config.DOCKING_POSITION_TOLERANCE, Config.DOCKING_ROTATION_TOLERANCE)) {
+            session.follow(exporter, importer);
+            cycleSessionsReused++;
+            return true;
+        }
+
+        // Moved past the tolerance - full check. An established session is only ended once the pair is
+        // clearly apart, so a ship bobbing at the edge of range keeps its session.
+        cyclePairsChecked++;
+        TransferPlanner.PairCheck pair = checkPair(new TransferPlanner.PairCheck(exporter, importer));
+        if (!pair.stillDocked) {
+            Logger.sendMessage(String.format("Docking session ended: %s -> %s", exporter.multiblockId, importer.multiblockId), true);
+            return false;
+        }
+
+        session.revalidate(exporter, importer, pair.alignmentPercent, pair.transferAmount);
+        return true;
+    }
+
+    // Looser version of the geometry checks in shouldTransferBetween, used to keep an existing session alive
+    private boolean isStillDocked(MultiblockTransferData exporter, MultiblockTransferData importer) {
+        return exporter.worldFacing == importer.worldFacing.getOpposite() &&
+                exporter.worldOBB.inflate(Config.DOCKING_HYSTERESIS).intersects(importer.worldOBB);
+    }
+
+    // Ship multiblocks are grouped per ship, everything else goes in the ground index
+    private static boolean isShipTransferData(MultiblockTransferData data) {
+        return data.isOnShip && data.shipId != null;
+    }
+
+    // Marks the cached transfer data of a multiblock as stale so the next cycle recalculates it
+    private void markTransferDataDirty(int multiblockId) {
+        MultiblockData data = multiblocks.get(multiblockId);
+        if (data != null) {
+            data.transferDataDirty = true;
+        }
+        markRegistryDirty();
+    }
+
+    // Every change to blocks, chests or mode goes through markTransferDataDirty, chest groups through here
+    private void markRegistryDirty() {
+        if (savedData != null) {
+            savedData.setDirty();
+        }
+    }
+
+    // Writes the registry in the layout described in MultiblockSavedData
+    CompoundTag writeRegistry(CompoundTag tag) {
+        ListTag multiblockList = new ListTag();
+        for (MultiblockData data : multiblocks.values()) {
+            CompoundTag entry = new CompoundTag();
+            entry.putInt("Handle", data.handle);
+            entry.putBoolean("Import", data.importMode);
+            if (data.isOnShip && data.shipId != null) {
+                entry.putLong("Ship", data.shipId);
+            }
+            entry.putByteArray("Blocks", MultiblockSavedData.encodePositions(data.blocks.toLongArray()));
+            long[] chests = new long[data.chests.size()];
+            int i = 0;
+            for (BlockPos chestPos : data.chests) {
+                chests[i++] = chestPos.asLong();
             }
-            Logger.sendMessage("Ground multiblock - Using local facing: " + facing, true);
-            return facing;
+            entry.putByteArray("Chests", MultiblockSavedData.encodePositions(chests));
+            multiblockList.add(entry);
+        }
+
+        ListTag groupList = new ListTag();
+        for (Long2ObjectMap.Entry<LongSet> group : chestGroups.long2ObjectEntrySet()) {
+            CompoundTag entry = new CompoundTag();
+            entry.putLong("Primary", group.getLongKey());
+            entry.putByteArray("Chests", MultiblockSavedData.encodePositions(group.getValue().toLongArray()));
+            groupList.add(entry);
+        }
+
+        ListTag legacyList = new ListTag();
+        for (Map.Entry<String, Integer> legacy : legacyHandles.entrySet()) {
+            CompoundTag entry = new CompoundTag();
+            entry.putString("Id", legacy.getKey());
+            entry.putInt("Handle", legacy.getValue());
+            legacyList.add(entry);
+        }
+
+        tag.putInt("Version", MultiblockSavedData.VERSION);
+        tag.putInt("NextHandle", nextHandle);
+        tag.put("Multiblocks", multiblockList);
+        tag.put("ChestGroups", groupList);
+        tag.put("LegacyHandles", legacyList);
+        return tag;
+    }
+
+    // Bulk load of a saved registry into the empty manager; transfer data is calculated on the next cycle
+    void readRegistry(CompoundTag tag) {
+        ListTag groupList = tag.getList("ChestGroups", Tag.TAG_COMPOUND);
+        for (int i = 0; i < groupList.size(); i++) {
+            CompoundTag entry = groupList.getCompound(i);
+            registerChestGroup(entry.getLong("Primary"), new LongOpenHashSet(MultiblockSavedData.decodePositions(entry.getByteArray("Chests"))));
+        }
+
+        ListTag multiblockList = tag.getList("Multiblocks", Tag.TAG_COMPOUND);
+        int blockCount = 0;
+        for (int i = 0; i < multiblockList.size(); i++) {
+            CompoundTag entry = multiblockList.getCompound(i);
+            int handle = entry.getInt("Handle");
+            LongSet blocks = new LongOpenHashSet(MultiblockSavedData.decodePositions(entry.getByteArray("Blocks")));
+            if (handle == NO_MULTIBLOCK || blocks.isEmpty() || multiblocks.containsKey(handle)) continue;
+
+            boolean isOnShip = entry.contains("Ship", Tag.TAG_LONG);
+            MultiblockData data = new MultiblockData(handle, blocks, isOnShip, isOnShip ? entry.getLong("Ship") : null, entry.getBoolean("Import"));
+            for (long chestPos : MultiblockSavedData.decodePositions(entry.getByteArray("Chests"))) {
+                data.chests.add(BlockPos.of(chestPos));
+                chestToMultiblocks.computeIfAbsent(chestPos, k -> new IntOpenHashSet()).add(handle);
+            }
+            multiblocks.put(handle, data);
+            indexBlocks(blocks, handle);
+            data.transferDataDirty = true;
+            blockCount += blocks.size();
+        }
+
+        // Two string ids on one handle would merge their multiblocks; the later one is dropped and
+        // gets a fresh handle when its blocks load
+        IntSet legacyHandlesSeen = new IntOpenHashSet();
+        ListTag legacyList = tag.getList("LegacyHandles", Tag.TAG_COMPOUND);
+        for (int i = 0; i < legacyList.size(); i++) {
+            CompoundTag entry = legacyList.getCompound(i);
+            String legacyId = entry.getString("Id");
+            int handle = entry.getInt("Handle");
+            if (handle == NO_MULTIBLOCK || !legacyHandlesSeen.add(handle)) {
+                Logger.sendMessage("Ignoring saved handle " + handle + " of multiblock " + legacyId + ", it is already taken", false);
+                continue;
+            }
+            legacyHandles.put(legacyId, handle);
         }
 
-        // Ship multiblock - calculate world-facing from ship rotation
-        Ship ship = findShipById(data.shipId);
-        if (ship == null) {
-            Logger.sendMessage("Ship not found for ID: " + data.shipId + " - using local facing", true);
-            BlockPos firstPos = data.blocks.iterator().next();
-            BlockState state = level.getBlockState(firstPos);
-            Direction facing = Direction.NORTH;
-            if (state.hasProperty(ShipItemTransportBlock.FACING)) {
-                facing = state.getValue(ShipItemTransportBlock.FACING);
+        // Never below a loaded handle, in case the counter was saved before the multiblocks changed
+        nextHandle = tag.getInt("NextHandle");
+        for (int handle : multiblocks.keySet().toIntArray()) {
+            if (handle >= nextHandle) nextHandle = handle + 1;
+        }
+        for (int handle : legacyHandles.values()) {
+            if (handle >= nextHandle) nextHandle = handle + 1;
+        }
+
+        Logger.sendMessage(String.format("Loaded %d multiblocks (%d blocks) and %d chest groups from saved data",
+                multiblocks.size(), blockCount, chestGroups.size()), false);
+    }
+
+    // Cached transfer data of a multiblock, null if it is gone or was never calculated
+    private MultiblockTransferData getTransferData(int multiblockId) {
+        MultiblockData data = multiblocks.get(multiblockId);
+        return data != null ? data.transferData : null;
+    }
+
+    private void queueTransferDataUpdates() {
+        int recalculated = 0;
+        transferDataJobs = new ArrayList<>();
+
+        for (MultiblockData data : multiblocks.values()) {
+            MultiblockTransferData cached = data.transferData;
+            if (cached != null && !data.transferDataDirty &&
+                    !(data.isOnShip && data.shipId != null && hasShipMovedSince(cached))) {
+                continue;
             }
-            return facing;
+            recalculated++;
+            int multiblockId = data.handle;
+            transferScheduler.enqueue(() -> prepareTransferData(multiblockId));
         }
+        transferScheduler.enqueue(this::planTransferData);
 
-        // Get local facing from first block
-        BlockPos firstPos = data.blocks.iterator().next();
-        BlockState state = level.getBlockState(firstPos);
-        Direction localFacing = Direction.NORTH;
-        if (state.hasProperty(ShipItemTransportBlock.FACING)) {
-            localFacing = state.getValue(ShipItemTransportBlock.FACING);
+        Logger.sendMessage(String.format("Transfer data queued for recalculation: %d, reused: %d",
+                recalculated, multiblocks.size() - recalculated), true);
+    }
+
+    // Server thread part of a recalculation: everything that reads the level or the live registry record
+    private void prepareTransferData(int multiblockId) {
+        MultiblockData data = multiblocks.get(multiblockId);
+        if (data == null || data.blocks.isEmpty()) return;
+        // Known from the saved registry but not loaded - reading its blocks would load the chunk
+        if (!level.isLoaded(BlockPos.of(data.blocks.iterator().nextLong()))) {
+            data.transferData = null;
+            groundIndex.remove(multiblockId);
+            return;
+        }
+        if (data.transferDataDirty) {
+            data.transferDataDirty = false;
+            invalidateTransferLinks(multiblockId);
+        }
+
+        // Plane the blocks form, in local coordinates
+        Direction localFacing = getLocalFacing(data);
+        PlanarShape shape = data.getShape(localFacing);
+
+        // Calculate extended OBB (local coordinates, extended along the local facing)
+        AABB extendedOBB = calculateExtendedOBB(data, localFacing);
+
+        ShipTransformSnapshot.ShipPose pose = data.isOnShip ? shipSnapshot.get(data.shipId) : null;
+        transferDataJobs.add(new TransferDataJob(data, shape, localFacing, extendedOBB, pose));
+    }
+
+    // Hands the captured multiblocks to the planner pool; tick() stores the results once all are done
+    private void planTransferData() {
+        pendingTransferData = TransferPlanner.plan(transferDataJobs, this::calculateTransferData);
+    }
+
+    // Pure-math part of a recalculation. May run on a planner worker, so it only reads the job.
+    private TransferDataJob calculateTransferData(TransferDataJob job) {
+        // Calculate world-facing direction
+        Direction worldFacing = calculateWorldFacing(job);
+
+        // Oriented box in world coordinates - computed once here, reused by every pair check
+        ShipTransformSnapshot.ShipPose pose = job.pose;
+        OrientedBox worldOBB = pose != null
+                ? OrientedBox.fromShipBox(job.extendedOBB, pose)
+                : OrientedBox.fromWorldBox(job.extendedOBB);
+        Vec3 center = new Vec3(worldOBB.centerX, worldOBB.centerY, worldOBB.centerZ);
+
+        // Cells as seen across the world face; ground blocks already are world cells
+        job.faceProjection = pose != null ? FaceProjection.project(job.previousProjection, job.shape, pose, worldFacing.getAxis()) : null;
+        PlanarShape faceShape = pose != null ? job.faceProjection.getShape() : job.shape;
+
+        // Remember the ship pose so later cycles can tell whether this data is still valid
+        Vector3d shipPosition = null;
+        Quaterniond shipRotation = null;
+        if (pose != null) {
+            shipPosition = pose.position;
+            shipRotation = pose.rotation;
+        }
+
+        job.transferData = new MultiblockTransferData(
+                job.data.handle, job.shape, faceShape, job.isOnShip, job.shipId,
+                worldFacing, job.extendedOBB, job.importMode, job.shape.getBlockCount(), job.chests, center, worldOBB,
+                shipPosition, shipRotation
+        );
+        return job;
+    }
+
+    private void queueCalculatedTransferData() {
+        if (pendingTransferData.isCompletedExceptionally()) {
+            // Multiblocks that were not calculated are calculated on the server thread instead
+            Logger.sendMessage("Transfer data calculation failed, calculating remaining multiblocks on the server thread", false);
+        }
+
+        for (TransferDataJob job : transferDataJobs) {
+            transferScheduler.enqueue(() -> storeTransferData(job));
+        }
+        transferScheduler.enqueue(this::queueCandidatePairs);
+
+        transferDataJobs = null;
+        pendingTransferData = null;
+    }
+
+    private void storeTransferData(TransferDataJob job) {
+        MultiblockData data = job.data;
+        int multiblockId = data.handle;
+        // Removed or absorbed by a merge while it was calculated
+        if (multiblocks.get(multiblockId) != data) return;
+        if (job.transferData == null) {
+            calculateTransferData(job);
+        }
+
+        MultiblockTransferData transferData = job.transferData;
+        data.transferData = transferData;
+        data.faceProjection = job.faceProjection;
+
+        // Ground boxes only change when this data is recalculated (placement, removal, chests, mode)
+        if (isShipTransferData(transferData)) {
+            groundIndex.remove(multiblockId);
+        } else {
+            groundIndex.insert(multiblockId, transferData.worldBounds);
+        }
+
+        Logger.sendMessage(String.format("Multiblock %s: blocks=%d, facing=%s, mode=%s, onShip=%s, chests=%d, center=%s",
+                multiblockId, transferData.blockCount, transferData.worldFacing, transferData.isImportMode ? "IMPORT" : "EXPORT",
+                transferData.isOnShip, transferData.chests.size(), transferData.center.toString()), true);
+    }
+
+    private boolean hasShipMovedSince(MultiblockTransferData cached) {
+        ShipTransformSnapshot.ShipPose pose = shipSnapshot.get(cached.shipId);
+        if (pose == null || cached.shipPosition == null || cached.shipRotation == null) {
+            // Ship was missing last time or is missing now - recalculate to be safe
+            return true;
+        }
+
+        return ShipTransformSnapshot.exceedsTolerance(cached.shipPosition, cached.shipRotation, pose.position, pose.rotation,
+                Config.SHIP_MOVE_THRESHOLD, Config.SHIP_ROTATION_THRESHOLD);
+    }
+
+    private Direction calculateWorldFacing(TransferDataJob job) {
+        Logger.sendMessage("=== CALCULATING WORLD FACING ===", true);
+
+        if (!job.isOnShip || job.shipId == null) {
+            // Ground multiblock - use first block's facing
+            Logger.sendMessage("Ground multiblock - Using local facing: " + job.localFacing, true);
+            return job.localFacing;
         }
 
+        // Ship multiblock - calculate world-facing from the ship rotation captured for this cycle
+        ShipTransformSnapshot.ShipPose pose = job.pose;
+        if (pose == null) {
+            Logger.sendMessage("Ship not found for ID: " + job.shipId + " - using local facing", true);
+            return job.localFacing;
+        }
+
+        // Facing of the first block, read on the server thread
+        Direction localFacing = job.localFacing;
+
         Logger.sendMessage("Ship multiblock - Local facing: " + localFacing, true);
 
         // Transform local facing to world space using ship transformation
@@ -265,7 +1055,7 @@ public class MultiblockManager {
         Logger.sendMessage("Local facing vector: " +
                 String.format("(%.2f, %.2f, %.2f)", localFacingVector.x, localFacingVector.y, localFacingVector.z), true);
 
-        Vector3d worldFacingVector = transformLocalToWorld(ship, localFacingVector);
+        Vector3d worldFacingVector = transformLocalToWorld(pose, localFacingVector);
         Logger.sendMessage("World facing vector: " +
                 String.format("(%.2f, %.2f, %.2f)", worldFacingVector.x, worldFacingVector.y, worldFacingVector.z), true);
 
@@ -276,15 +1066,14 @@ public class MultiblockManager {
 
         // Debug: Show ship transform info
         try {
-            var transform = ship.getTransform();
-            Vector3d shipPos = (Vector3d) transform.getPositionInWorld();
+            Vector3d shipPos = pose.position;
             Logger.sendMessage("Ship position: " +
                     String.format("(%.2f, %.2f, %.2f)", shipPos.x, shipPos.y, shipPos.z), true);
 
             // Test transformation of basic vectors
             Vector3d testNorth = new Vector3d(0, 0, -1);
             Vector3d testNorthWorld = new Vector3d(testNorth);
-            transform.getShipToWorld().transformDirection(testNorthWorld);
+            pose.transformDirection(testNorthWorld);
             Logger.sendMessage("Test NORTH in world: " +
                     String.format("(%.2f, %.2f, %.2f) -> %s",
                             testNorth.x, testNorth.y, testNorth.z,
@@ -292,7 +1081,7 @@ public class MultiblockManager {
 
             Vector3d testEast = new Vector3d(1, 0, 0);
             Vector3d testEastWorld = new Vector3d(testEast);
-            transform.getShipToWorld().transformDirection(testEastWorld);
+            pose.transformDirection(testEastWorld);
             Logger.sendMessage("Test EAST in world: " +
                     String.format("(%.2f, %.2f, %.2f) -> %s",
                             testEast.x, testEast.y, testEast.z,
@@ -307,6 +1096,18 @@ public class MultiblockManager {
         return worldFacing;
     }
 
+    // Facing of the first block, in the coordinates the blocks live in (ship-local for ship multiblocks)
+    // Read once per multiblock and kept on the record - all blocks of a multiblock share their facing
+    private Direction getLocalFacing(MultiblockData data) {
+        if (data.facing != null) return data.facing;
+        BlockState state = level.getBlockState(BlockPos.of(data.blocks.iterator().nextLong()));
+        if (state.hasProperty(ShipItemTransportBlock.FACING)) {
+            data.facing = state.getValue(ShipItemTransportBlock.FACING);
+            return data.facing;
+        }
+        return Direction.NORTH;
+    }
+
     private Vector3d getDirectionVector(Direction direction) {
         return new Vector3d(
                 direction.getStepX(),
@@ -315,9 +1116,9 @@ public class MultiblockManager {
         );
     }
 
-    private Vector3d transformLocalToWorld(Ship ship, Vector3d localVector) {
+    private Vector3d transformLocalToWorld(ShipTransformSnapshot.ShipPose pose, Vector3d localVector) {
         Vector3d worldVector = new Vector3d(localVector);
-        ship.getTransform().getShipToWorld().transformDirection(worldVector);
+        pose.transformDirection(worldVector);
         return worldVector.normalize();
     }
 
@@ -326,7 +1127,7 @@ public class MultiblockManager {
         double maxDot = -Double.MAX_VALUE;
         Direction closestDirection = Direction.NORTH;
 
-        for (Direction dir : Direction.values()) {
+        for (Direction dir : DIRECTIONS) {
             Vector3d dirVector = getDirectionVector(dir);
             double dot = vector.dot(dirVector);
 
@@ -339,42 +1140,25 @@ public class MultiblockManager {
         return closestDirection;
     }
 
-    private AABB calculateExtendedOBB(MultiblockData data, Direction worldFacing) {
+    private AABB calculateExtendedOBB(MultiblockData data, Direction localFacing) {
         Logger.sendMessage("=== CALCULATING EXTENDED OBB ===", true);
-        Logger.sendMessage("World facing for OBB: " + worldFacing, true);
-
-        // Calculate base AABB from all blocks in LOCAL coordinates
-        AABB baseAABB = null;
-        for (BlockPos pos : data.blocks) {
-            AABB blockAABB;
-
-            if (data.isOnShip && data.shipId != null) {
-                // For ship multiblocks, use the block position directly (it's already in ship-local coordinates)
-                blockAABB = new AABB(pos);
-            } else {
-                // For ground multiblocks, use world coordinates
-                blockAABB = new AABB(pos);
-            }
+        Logger.sendMessage("Local facing for OBB: " + localFacing, true);
 
-            if (baseAABB == null) {
-                baseAABB = blockAABB;
-            } else {
-                baseAABB = baseAABB.minmax(blockAABB);
-            }
-        }
-
-        if (baseAABB == null) {
+        // Base box kept on the record, in LOCAL coordinates
+        // Ship multiblocks are already in ship-local coordinates, ground multiblocks in world coordinates
+        if (data.blocks.isEmpty()) {
             Logger.sendMessage("No blocks found for OBB calculation", true);
             return new AABB(0, 0, 0, 0, 0, 0);
         }
+        AABB baseAABB = data.getLocalBounds();
 
         Logger.sendMessage("Base OBB: " + baseAABB.toString(), true);
 
-        // Extend by 1 block in the facing direction
+        // Extend by 1 block in the facing direction (same coordinates as the blocks, the ship pose is applied later)
         AABB extendedOBB = baseAABB.expandTowards(
-                worldFacing.getStepX(),
-                worldFacing.getStepY(),
-                worldFacing.getStepZ()
+                localFacing.getStepX(),
+                localFacing.getStepY(),
+                localFacing.getStepZ()
         );
 
         Logger.sendMessage("Extended OBB: " + extendedOBB.toString(), true);
@@ -383,13 +1167,6 @@ public class MultiblockManager {
         return extendedOBB;
     }
 
-    private Ship findShipById(Long shipId) {
-        if (level.isClientSide) return null;
-        ShipWorldCore shipWorld = VSGameUtilsKt.getShipObjectWorld(level);
-        if (shipWorld == null) return null;
-        return shipWorld.getAllShips().getById(shipId);
-    }
-
     private boolean shouldTransferBetween(MultiblockTransferData data1, MultiblockTransferData data2) {
         Logger.sendMessage("=== TRANSFER CHECK BETWEEN " + data1.multiblockId + " AND " + data2.multiblockId + " ===", true);
 
@@ -418,35 +1195,14 @@ public class MultiblockManager {
         }
         Logger.sendMessage("  ✅ Passed: Mode compatibility", true);
 
-        // 4. OBB intersection - WITH DETAILED DEBUGGING
+        // 4. OBB intersection - separating axis test on the world boxes calculated for this cycle
         Logger.sendMessage("=== OBB INTERSECTION CHECK ===", true);
-        Logger.sendMessage("OBB1 (Ship): " + data1.extendedOBB.toString(), true);
-        Logger.sendMessage("OBB2 (Ground): " + data2.extendedOBB.toString(), true);
-
-        // Check if we need to transform ship OBB to world space
-        AABB obb1World = data1.extendedOBB;
-        AABB obb2World = data2.extendedOBB;
-
-        if (data1.isOnShip && data1.shipId != null) {
-            // Transform ship OBB to world coordinates
-            obb1World = transformOBBToWorld(data1);
-            Logger.sendMessage("Transformed OBB1 to world: " + obb1World.toString(), true);
-        }
-        if (data2.isOnShip && data2.shipId != null) {
-            // Transform ship OBB to world coordinates
-            obb2World = transformOBBToWorld(data2);
-            Logger.sendMessage("Transformed OBB2 to world: " + obb1World.toString(), true);
-        }
-        Logger.sendMessage("=== OBB INTERSECTION CHECK after the transform to world ===", true);
-        Logger.sendMessage("OBB1 (Ship): " + obb1World.toString(), true);
-        Logger.sendMessage("OBB2 (Ground): " + obb2World.toString(), true);
+        Logger.sendMessage("OBB1: " + data1.worldOBB.toString(), true);
+        Logger.sendMessage("OBB2: " + data2.worldOBB.toString(), true);
 
-        boolean intersects = obb1World.intersects(obb2World);
+        boolean intersects = data1.worldOBB.intersects(data2.worldOBB);
         Logger.sendMessage("OBB Intersection result: " + intersects, true);
 
-        // Manual intersection check for debugging
-        manualOBBIntersectionCheck(obb1World, obb2World);
-
         if (!intersects) {
             Logger.sendMessage("  ❌ Failed: OBB intersection", true);
             return false;
@@ -465,66 +1221,6 @@ public class MultiblockManager {
         return true;
     }
 
-    private AABB transformOBBToWorld(MultiblockTransferData shipData) {
-
-        if (!shipData.isOnShip || shipData.shipId == null) {
-            return shipData.extendedOBB;
-        }
-
-        Ship ship = findShipById(shipData.shipId);
-        if (ship == null) {
-            return shipData.extendedOBB;
-        }
-
-        // Transform all corners of the OBB from local to world coordinates
-        Vector3d min = new Vector3d(shipData.extendedOBB.minX, shipData.extendedOBB.minY, shipData.extendedOBB.minZ);
-        Vector3d max = new Vector3d(shipData.extendedOBB.maxX, shipData.extendedOBB.maxY, shipData.extendedOBB.maxZ);
-
-        ship.getTransform().getShipToWorld().transformPosition(min);
-        ship.getTransform().getShipToWorld().transformPosition(max);
-
-        // Create new AABB with transformed coordinates
-        return new AABB(
-                Math.min(min.x, max.x), Math.min(min.y, max.y), Math.min(min.z, max.z),
-                Math.max(min.x, max.x), Math.max(min.y, max.y), Math.max(min.z, max.z)
-        );
-    }
-
-
-    private void manualOBBIntersectionCheck(AABB obb1, AABB obb2) {
-        Logger.sendMessage("=== MANUAL OBB INTERSECTION CHECK ===", true);
-        Logger.sendMessage("OBB1 bounds - X: " + obb1.minX + " to " + obb1.maxX +
-                ", Y: " + obb1.minY + " to " + obb1.maxY +
-                ", Z: " + obb1.minZ + " to " + obb1.maxZ, true);
-        Logger.sendMessage("OBB2 bounds - X: " + obb2.minX + " to " + obb2.maxX +
-                ", Y: " + obb2.minY + " to " + obb2.maxY +
-                ", Z: " + obb2.minZ + " to " + obb2.maxZ, true);
-
-        // Check each axis for separation
-        boolean xOverlap = obb1.maxX >= obb2.minX && obb1.minX <= obb2.maxX;
-        boolean yOverlap = obb1.maxY >= obb2.minY && obb1.minY <= obb2.maxY;
-        boolean zOverlap = obb1.maxZ >= obb2.minZ && obb1.minZ <= obb2.maxZ;
-
-        Logger.sendMessage("X-axis overlap: " + xOverlap, true);
-        Logger.sendMessage("Y-axis overlap: " + yOverlap, true);
-        Logger.sendMessage("Z-axis overlap: " + zOverlap, true);
-        Logger.sendMessage("All axes overlap: " + (xOverlap && yOverlap && zOverlap), true);
-
-        if (!xOverlap) {
-            double gap = Math.max(obb2.minX - obb1.maxX, obb1.minX - obb2.maxX);
-            Logger.sendMessage("X-axis gap: " + gap, true);
-        }
-        if (!yOverlap) {
-            double gap = Math.max(obb2.minY - obb1.maxY, obb1.minY - obb2.maxY);
-            Logger.sendMessage("Y-axis gap: " + gap, true);
-        }
-        if (!zOverlap) {
-            double gap = Math.max(obb2.minZ - obb1.maxZ, obb1.minZ - obb2.maxZ);
-            Logger.sendMessage("Z-axis gap: " + gap, true);
-        }
-        Logger.sendMessage("=== END MANUAL CHECK ===", true);
-    }
-
     private boolean areMultiblocksClose(MultiblockTransferData data1, MultiblockTransferData data2) {
         double distance = data1.center.distanceTo(data2.center);
         double maxReasonableDistance = 50.0;
@@ -569,314 +1265,405 @@ public class MultiblockManager {
         return result;
     }
 
-    private void executeItemTransfer(MultiblockTransferData data1, MultiblockTransferData data2) {
-        // Determine which is exporter and which is importer
-        MultiblockTransferData exporter = data1.isImportMode ? data2 : data1;
-        MultiblockTransferData importer = data1.isImportMode ? data1 : data2;
-
-        // Calculate alignment percentage
-        float alignmentPercent = calculateAlignmentPercent(exporter, importer);
-
-        // Calculate transfer amount
-        int transferAmount = calculateTransferAmount(exporter, importer, alignmentPercent);
+    // Moves up to transferAmount items, already limited by the link's bucket and the server budget
+    private int executeItemTransfer(DockingSession session, TransferCursor cursor, int transferAmount) {
 
         Logger.sendMessage(String.format("TRANSFER: %s -> %s, Alignment: %.1f%%, Amount: %d",
-                exporter.multiblockId, importer.multiblockId, alignmentPercent, transferAmount), true);
+                session.getExporter().multiblockId, session.getImporter().multiblockId,
+                session.getAlignmentPercent(), transferAmount), true);
 
         if (transferAmount > 0) {
-            performItemTransfer(exporter, importer, transferAmount);
+            return performItemTransfer(session, cursor, transferAmount);
         }
+        return 0;
     }
 
-    private float calculateAlignmentPercent(MultiblockTransferData exporter, MultiblockTransferData importer) {
-        // Get proper OBB coordinates - transform ship multiblocks to world coordinates
-        AABB exporterAABB = getWorldOBB(exporter);
-        AABB importerAABB = getWorldOBB(importer);
-
-        Direction facing = exporter.worldFacing;
-
-        float alignment;
-
-        if (facing.getAxis().isHorizontal()) {
-            // Horizontal transfer - check Y alignment
-            double overlapY = Math.min(exporterAABB.maxY, importerAABB.maxY) -
-                    Math.max(exporterAABB.minY, importerAABB.minY);
-            double exporterHeight = exporterAABB.getYsize();
-            double importerHeight = importerAABB.getYsize();
-            double minHeight = Math.min(exporterHeight, importerHeight);
+    // A link may move one cycle's transfer amount per cycle, capped by the configured items per second
+    private TokenBucket getLinkBucket(TransferLink link, int transferAmount) {
+        double itemsPerSecond = transferAmount * 20.0 / TRANSFER_INTERVAL_TICKS;
+        if (Config.LINK_MAX_ITEMS_PER_SECOND > 0) {
+            itemsPerSecond = Math.min(itemsPerSecond, Config.LINK_MAX_ITEMS_PER_SECOND);
+        }
+        // Burst of one cycle's worth, so a link that waited longer does not flood the importer
+        double capacity = itemsPerSecond * TRANSFER_INTERVAL_TICKS / 20.0;
+        return link.getBucket(itemsPerSecond, capacity, managerTick);
+    }
 
-            if (minHeight <= 0 || overlapY <= 0) {
-                alignment = 0;
-            } else {
-                alignment = (float) Math.max(0, Math.min(100, (overlapY / minHeight) * 100.0));
-            }
+    // Share of the smaller port whose cells face a cell of the other port across the shared face
+    private float calculateAlignmentPercent(MultiblockTransferData exporter, MultiblockTransferData importer, int facingPairs) {
+        int smallerPort = Math.min(exporter.faceShape.getBlockCount(), importer.faceShape.getBlockCount());
+        float alignment = smallerPort <= 0 ? 0 : Math.min(100, facingPairs * 100.0f / smallerPort);
 
-            Logger.sendMessage(String.format("  Horizontal alignment: overlapY=%.3f, minHeight=%.3f, alignment=%.1f%%",
-                    overlapY, minHeight, alignment), true);
-        } else {
-            // Vertical transfer - check XZ alignment
-            double overlapX = Math.min(exporterAABB.maxX, importerAABB.maxX) -
-                    Math.max(exporterAABB.minX, importerAABB.minX);
-            double overlapZ = Math.min(exporterAABB.maxZ, importerAABB.maxZ) -
-                    Math.max(exporterAABB.minZ, importerAABB.minZ);
-
-            // Only proceed if there's positive overlap
-            if (overlapX <= 0 || overlapZ <= 0) {
-                alignment = 0;
-                Logger.sendMessage(String.format("  Vertical alignment: NO OVERLAP (overlapX=%.3f, overlapZ=%.3f)",
-                        overlapX, overlapZ), true);
-            } else {
-                double exporterArea = exporterAABB.getXsize() * exporterAABB.getZsize();
-                double importerArea = importerAABB.getXsize() * importerAABB.getZsize();
-                double minArea = Math.min(exporterArea, importerArea);
-
-                if (minArea <= 0) {
-                    alignment = 0;
-                } else {
-                    double overlapArea = overlapX * overlapZ;
-                    alignment = (float) Math.max(0, Math.min(100, (overlapArea / minArea) * 100.0));
-                }
-
-                Logger.sendMessage(String.format("  Vertical alignment: overlapX=%.3f, overlapZ=%.3f, overlapArea=%.3f, minArea=%.3f, alignment=%.1f%%",
-                        overlapX, overlapZ, overlapX * overlapZ, minArea, alignment), true);
-            }
-        }
+        Logger.sendMessage(String.format("  Alignment: facing pairs=%d, smaller port=%d, alignment=%.1f%%",
+                facingPairs, smallerPort, alignment), true);
 
         return alignment;
     }
 
-    // Helper method to get OBB in world coordinates
-    private AABB getWorldOBB(MultiblockTransferData data) {
-        if (data.isOnShip && data.shipId != null) {
-            // Transform ship OBB to world coordinates
-            return transformOBBToWorld(data);
-        } else {
-            // Ground multiblock - use OBB as-is (already in world coordinates)
-            return data.extendedOBB;
-        }
-    }
-
-    private int calculateTransferAmount(MultiblockTransferData exporter, MultiblockTransferData importer, float alignmentPercent) {
+    private int calculateTransferAmount(int facingPairs) {
         // Use the configured transfer rate
         int baseTransferRate = Config.ITEM_TRANSFER_RATE;
 
-        // Apply multiblock size scaling (each block adds to capacity)
-        int blockBonus = Math.min(exporter.blockCount, importer.blockCount) * baseTransferRate;
+        // Each block facing a block of the other port adds to capacity. The ceiling is the link's token bucket
+        // (linkMaxItemsPerSecond, 64 by default), which also bounds a single run to one cycle's worth.
+        int actualTransfer = facingPairs * baseTransferRate;
 
-        // Total transfer per cycle
-
-
-        // Apply alignment efficiency
-        int actualTransfer = (int) (blockBonus * (alignmentPercent / 100.0));
-
-        // Minimum transfer if there's any alignment
-        if (alignmentPercent > 0 && actualTransfer < baseTransferRate) {
-            actualTransfer = baseTransferRate;
-        }
-
-        // Maximum cap to prevent huge transfers
-        int maxTransfer = baseTransferRate * 10; // 10x base rate as maximum
-        actualTransfer = Math.min(actualTransfer, maxTransfer);
-
-        Logger.sendMessage(String.format("  Transfer calc: baseRate=%d, blockBonus=%d, aligned=%d",
-                baseTransferRate, blockBonus, actualTransfer), true);
+        Logger.sendMessage(String.format("  Transfer calc: baseRate=%d, facing pairs=%d, aligned=%d",
+                baseTransferRate, facingPairs, actualTransfer), true);
 
         return actualTransfer;
     }
-    private void performItemTransfer(MultiblockTransferData exporter, MultiblockTransferData importer, int transferAmount) {
-        if (exporter.chests.isEmpty() || importer.chests.isEmpty()) {
+    private int performItemTransfer(DockingSession session, TransferCursor cursor, int transferAmount) {
+        if (session.getExporter().chests.isEmpty() || session.getImporter().chests.isEmpty()) {
             Logger.sendMessage("  ❌ No chests available for transfer", true);
-            return;
+            return 0;
         }
 
-        // Get all item handlers
-        List<IItemHandler> exporterHandlers = getItemHandlers(exporter.chests);
-        List<IItemHandler> importerHandlers = getItemHandlers(importer.chests);
+        // Item handlers resolved when the docking session was opened
+        Map<BlockPos, IItemHandler> exporterHandlers = session.getExporterHandlers();
+        Map<BlockPos, IItemHandler> importerHandlers = session.getImporterHandlers();
 
         if (exporterHandlers.isEmpty() || importerHandlers.isEmpty()) {
             Logger.sendMessage("  ❌ No item handlers available", true);
-            return;
+            return 0;
         }
 
         Logger.sendMessage(String.format("  Chests: exporter=%d, importer=%d",
                 exporterHandlers.size(), importerHandlers.size()), true);
 
-        // Simple item transfer implementation
+        // Use the chest summaries to skip empty exporters and full importers without touching their slots
+        boolean exporterEmpty = true;
+        for (Map.Entry<BlockPos, IItemHandler> entry : exporterHandlers.entrySet()) {
+            if (!getInventorySummary(entry.getKey(), entry.getValue()).isEmpty()) {
+                exporterEmpty = false;
+                break;
+            }
+        }
+        if (exporterEmpty) {
+            Logger.sendMessage("  Exporter is empty", true);
+            return 0;
+        }
+
+        Map<BlockPos, IItemHandler> openImporters = new LinkedHashMap<>();
+        for (Map.Entry<BlockPos, IItemHandler> entry : importerHandlers.entrySet()) {
+            if (!getInventorySummary(entry.getKey(), entry.getValue()).isFull()) {
+                openImporters.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (openImporters.isEmpty()) {
+            Logger.sendMessage("  Importer is full", true);
+            return 0;
+        }
+
+        // Plan every move first: importer slots indexed once, exporter slots read from the summaries.
+        // Both sides continue where the link's last transfer stopped.
+        List<Map.Entry<BlockPos, IItemHandler>> importerOrder = TransferCursor.startingAt(openImporters, cursor.getImporterChest());
+        ImporterSlotIndex importerIndex = new ImporterSlotIndex(importerOrder, cursor.getImporterSlot(importerOrder));
+        List<Map.Entry<BlockPos, IItemHandler>> exporterOrder = TransferCursor.startingAt(exporterHandlers, cursor.getExporterChest());
+        int exporterStartSlot = cursor.getExporterSlot(exporterOrder);
+        TransferPlan plan = new TransferPlan();
         int remainingTransfer = transferAmount;
-        int totalTransferred = 0;
 
-        for (IItemHandler exporterHandler : exporterHandlers) {
-            if (remainingTransfer <= 0) break;
+        // The first chest comes around again at the end for the slots before the cursor
+        for (int i = 0; i <= exporterOrder.size(); i++) {
+            boolean wrapped = i == exporterOrder.size();
+            if (wrapped && exporterStartSlot == 0) break;
+            if (remainingTransfer <= 0 || importerIndex.isFull()) break;
+
+            Map.Entry<BlockPos, IItemHandler> entry = exporterOrder.get(i % exporterOrder.size());
+            IItemHandler exporterHandler = entry.getValue();
+            InventorySummary exporterSummary = getInventorySummary(entry.getKey(), exporterHandler);
+            int fromSlot = i == 0 ? exporterStartSlot : 0;
+            int toSlot = wrapped ? exporterStartSlot : exporterSummary.getSlotCount();
+
+            // Only the slots the summary knows are occupied
+            for (int slot = exporterSummary.nextOccupiedSlot(fromSlot); slot >= 0 && slot < toSlot; slot = exporterSummary.nextOccupiedSlot(slot + 1)) {
+                if (remainingTransfer <= 0 || importerIndex.isFull()) break;
+
+                ItemStack stack = exporterHandler.getStackInSlot(slot);
+                if (stack.isEmpty() || !importerIndex.hasRoomFor(stack)) continue;
+
+                int count = Math.min(remainingTransfer, Math.min(stack.getCount(), stack.getMaxStackSize()));
+                int planned = importerIndex.plan(entry.getKey(), exporterHandler, slot, stack, count, plan);
+                if (planned > 0) {
+                    remainingTransfer -= planned;
+                    // Stay on a slot that still has items left, otherwise continue after it
+                    cursor.moveExporterTo(entry.getKey(), planned < stack.getCount() ? slot : slot + 1);
+                }
+            }
+        }
 
-            for (int slot = 0; slot < exporterHandler.getSlots(); slot++) {
-                if (remainingTransfer <= 0) break;
+        if (importerIndex.getLastStartedChest() != null) {
+            cursor.moveImporterTo(importerIndex.getLastStartedChest(), importerIndex.getLastStartedSlot() + 1);
+        }
 
-                ItemStack extracted = exporterHandler.extractItem(slot, remainingTransfer, true);
-                if (!extracted.isEmpty()) {
-                    // Try to insert into any importer handler
-                    ItemStack remaining = extracted.copy();
-                    for (IItemHandler importerHandler : importerHandlers) {
-                        if (remaining.isEmpty()) break;
+        // Then commit it in one pass, one real extract and insert per move
+        int totalTransferred = plan.isEmpty() ? 0 : plan.commit();
 
-                        for (int importerSlot = 0; importerSlot < importerHandler.getSlots(); importerSlot++) {
-                            remaining = importerHandler.insertItem(importerSlot, remaining, false);
-                            if (remaining.isEmpty()) break;
-                        }
-                    }
+        if (plan.getShortfalls() > 0) {
+            Logger.sendMessage(String.format("  %d of %d moves got less than planned, %d of them rolled back",
+                    plan.getShortfalls(), plan.getMoveCount(), plan.getRollbacks()), true);
+        }
+        for (Map.Entry<BlockPos, List<ItemStack>> unreturned : plan.getUnreturnedItems().entrySet()) {
+            // Neither chest had room for the rolled back items; nothing is dropped into the world
+            Logger.sendMessage("  Chest handlers refused to take back " + unreturned.getValue() + " taken from " + unreturned.getKey(), false);
+        }
 
-                    int actuallyTransferred = extracted.getCount() - remaining.getCount();
-                    if (actuallyTransferred > 0) {
-                        // Actually extract the items
-                        exporterHandler.extractItem(slot, actuallyTransferred, false);
-                        remainingTransfer -= actuallyTransferred;
-                        totalTransferred += actuallyTransferred;
-                        Logger.sendMessage(String.format("  Transferred %d items", actuallyTransferred), true);
-                    }
-                }
+        if (!plan.isEmpty()) {
+            for (BlockPos exporterChest : plan.getSourceChests()) {
+                markInventorySummaryStale(exporterChest);
+            }
+            for (BlockPos importerChest : plan.getChangedTargetChests()) {
+                markInventorySummaryStale(importerChest);
             }
         }
 
+        if (importerIndex.isFull()) {
+            Logger.sendMessage("  Importer is full", true);
+        }
         Logger.sendMessage(String.format("  ✅ Transfer complete: %d/%d items moved", totalTransferred, transferAmount), true);
+        return totalTransferred;
     }
 
-    private List<IItemHandler> getItemHandlers(Set<BlockPos> chestPositions) {
-        List<IItemHandler> handlers = new ArrayList<>();
+    // Item handler of each chest group, keyed by primary chest position.
+    // An inventory reachable through two chest groups (both halves of a double chest) is only listed once.
+    private Map<BlockPos, IItemHandler> getItemHandlers(Set<BlockPos> chestPositions) {
+        Map<BlockPos, IItemHandler> handlers = new LinkedHashMap<>();
 
         for (BlockPos pos : chestPositions) {
-            BlockEntity blockEntity = level.getBlockEntity(pos);
-            if (blockEntity != null) {
-                IItemHandler handler = blockEntity.getCapability(ForgeCapabilities.ITEM_HANDLER).orElse(null);
-                if (handler != null) {
-                    handlers.add(handler);
-                }
+            BlockPos partner = ChestHelper.getDoubleChestPartner(level, pos);
+            if (partner != null) {
+                BlockPos partnerPrimary = getPrimaryChest(partner);
+                if (handlers.containsKey(partnerPrimary != null ? partnerPrimary : partner)) continue;
+            }
+
+            IItemHandler handler = getCachedItemHandler(pos);
+            if (handler != null && !handlers.containsValue(handler)) {
+                handlers.put(pos, handler);
             }
         }
 
         return handlers;
     }
 
-    // Existing multiblock management methods
-    public String recreateMultiblock(Set<BlockPos> blocks, boolean importMode, String multiblockId) {
-        if (level.isClientSide) return null;
+    // Capability lookups are cached per chest group and dropped when the chest invalidates its capability
+    private IItemHandler getCachedItemHandler(BlockPos primaryChestPos) {
+        LazyOptional<IItemHandler> capability = chestHandlers.get(primaryChestPos.asLong());
+        if (capability == null) {
+            BlockEntity blockEntity = level.getBlockEntity(primaryChestPos);
+            if (blockEntity == null) return null;
 
-        BlockPos firstBlock = blocks.iterator().next();
-        boolean isOnShip = isBlockOnShip(firstBlock);
-        Long shipId = isOnShip ? getShipIdForBlock(firstBlock) : null;
+            capability = blockEntity.getCapability(ForgeCapabilities.ITEM_HANDLER);
+            if (!capability.isPresent()) return null;
 
-        String id = multiblockId;
-        multiblocks.put(id, new MultiblockData(id, new HashSet<>(blocks), isOnShip, shipId));
-        multiblockModes.put(id, importMode);
-        multiblockChests.put(id, new HashSet<>());
+            capability.addListener(invalidated -> onChestCapabilityInvalidated(primaryChestPos, invalidated));
+            chestHandlers.put(primaryChestPos.asLong(), capability);
+        }
+        return capability.orElse(null);
+    }
 
-        for (BlockPos pos : blocks) {
-            blockToMultiblock.put(pos, id);
+    private void onChestCapabilityInvalidated(BlockPos primaryChestPos, LazyOptional<IItemHandler> invalidated) {
+        // A newer capability may already be cached for this chest group
+        if (!chestHandlers.remove(primaryChestPos.asLong(), invalidated)) return;
+        chestSummaries.remove(primaryChestPos.asLong());
+
+        // Docking sessions hold the old handler - make them resolve it again
+        IntSet connectedMultiblocks = chestToMultiblocks.get(primaryChestPos.asLong());
+        if (connectedMultiblocks != null) {
+            for (int multiblockId : connectedMultiblocks) {
+                invalidateTransferLinks(multiblockId);
+            }
         }
+    }
 
-        Logger.sendMessage("Created new multiblock " + id + " with " + blocks.size() +
-                " blocks (on ship: " + isOnShip + ", shipId: " + shipId + ")", false);
-        return id;
+    // The chest group changed or went away - forget what was cached about it
+    private void forgetChestGroupCaches(long primaryChestPos) {
+        chestSummaries.remove(primaryChestPos);
+        chestHandlers.remove(primaryChestPos);
     }
 
-    public String createMultiblock(Set<BlockPos> blocks, boolean importMode) {
-        if (level.isClientSide) return null;
+    // Cached summary of a chest group, rebuilt when a change was reported or it got too old.
+    // A chest group that cannot report changes is rescanned every tick it is used.
+    private InventorySummary getInventorySummary(BlockPos primaryChestPos, IItemHandler handler) {
+        InventorySummary summary = chestSummaries.get(primaryChestPos.asLong());
+        int maxAge = reportsContentChanges(primaryChestPos.asLong()) ? Config.INVENTORY_SUMMARY_MAX_AGE_TICKS : 1;
+        if (summary == null || !summary.isValid(handler, managerTick, maxAge)) {
+            summary = InventorySummary.build(handler, managerTick);
+            chestSummaries.put(primaryChestPos.asLong(), summary);
+        }
+        return summary;
+    }
 
-        BlockPos firstBlock = blocks.iterator().next();
-        boolean isOnShip = isBlockOnShip(firstBlock);
-        Long shipId = isOnShip ? getShipIdForBlock(firstBlock) : null;
+    private void markInventorySummaryStale(BlockPos primaryChestPos) {
+        markInventorySummaryStale(primaryChestPos.asLong());
+    }
 
-        String id = UUID.randomUUID().toString();
-        multiblocks.put(id, new MultiblockData(id, new HashSet<>(blocks), isOnShip, shipId));
-        multiblockModes.put(id, importMode);
-        multiblockChests.put(id, new HashSet<>());
+    private void markInventorySummaryStale(long primaryChestPos) {
+        InventorySummary summary = chestSummaries.get(primaryChestPos);
+        if (summary != null) {
+            summary.markStale();
+        }
+    }
 
-        for (BlockPos pos : blocks) {
-            blockToMultiblock.put(pos, id);
+    // A chest's content change only reaches its horizontal neighbours (the comparator update), so a chest group
+    // that touches transporters only from above or below never calls onChestContentsChanged
+    private boolean reportsContentChanges(long primaryChestPos) {
+        LongSet chestGroup = chestGroups.get(primaryChestPos);
+        if (chestGroup == null) {
+            return hasTransporterBeside(primaryChestPos);
+        }
+        LongIterator members = chestGroup.iterator();
+        while (members.hasNext()) {
+            if (hasTransporterBeside(members.nextLong())) return true;
         }
+        return false;
+    }
 
-        Logger.sendMessage("Created new multiblock " + id + " with " + blocks.size() +
-                " blocks (on ship: " + isOnShip + ", shipId: " + shipId + ")", false);
-        return id;
+    private boolean hasTransporterBeside(long chestPos) {
+        for (Direction direction : DIRECTIONS) {
+            if (direction.getAxis().isHorizontal() && blockToMultiblock.get(BlockPos.offset(chestPos, direction)) != NO_MULTIBLOCK) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public void removeMultiblock(String id) {
+    // Called when a block entity next to a transporter reports a change (chest contents changed)
+    public void onChestContentsChanged(BlockPos chestPos) {
         if (level.isClientSide) return;
-        MultiblockData data = multiblocks.remove(id);
-        if (data != null) {
-            for (BlockPos pos : data.blocks) {
-                blockToMultiblock.remove(pos);
+        long primaryPos = chestToPrimary.get(chestPos.asLong());
+        if (primaryPos == NO_POS) return;
+
+        markInventorySummaryStale(primaryPos);
+        // The other half of a double chest shares the inventory and may be tracked in another group
+        BlockPos partner = ChestHelper.getDoubleChestPartner(level, chestPos);
+        if (partner != null) {
+            long partnerPrimary = chestToPrimary.get(partner.asLong());
+            if (partnerPrimary != NO_POS) {
+                markInventorySummaryStale(partnerPrimary);
             }
         }
-        multiblockModes.remove(id);
-        Set<BlockPos> chests = multiblockChests.remove(id);
-        if (chests != null) {
-            for (BlockPos chestPos : chests) {
-                Set<String> multiblockIds = chestToMultiblocks.get(chestPos);
-                if (multiblockIds != null) {
-                    multiblockIds.remove(id);
-                    if (multiblockIds.isEmpty()) {
-                        chestToMultiblocks.remove(chestPos);
-                    }
-                }
+
+        // Idle links of the connected multiblocks may be able to move items again
+        IntSet connectedMultiblocks = chestToMultiblocks.get(primaryPos);
+        if (connectedMultiblocks != null) {
+            for (int multiblockId : connectedMultiblocks) {
+                wakeTransferLinks(multiblockId);
             }
         }
+    }
 
-        Logger.sendMessage("Removed multiblock " + id, false);
+    // Existing multiblock management methods
+    // Block sets are kept packed with BlockPos.asLong; BlockPos sets only exist for chest scans and logging
+    private static LongSet packPositions(Collection<BlockPos> positions) {
+        LongSet packed = new LongOpenHashSet(positions.size());
+        for (BlockPos pos : positions) {
+            packed.add(pos.asLong());
+        }
+        return packed;
     }
 
-    public void updateMultiblock(String id, Set<BlockPos> blocks) {
-        if (level.isClientSide) return;
-        MultiblockData oldData = multiblocks.get(id);
-        if (oldData != null) {
-            for (BlockPos pos : oldData.blocks) {
-                blockToMultiblock.remove(pos);
-            }
+    private static Set<BlockPos> unpackPositions(LongSet packed) {
+        Set<BlockPos> positions = new HashSet<>(packed.size());
+        LongIterator iterator = packed.iterator();
+        while (iterator.hasNext()) {
+            positions.add(BlockPos.of(iterator.nextLong()));
         }
+        return positions;
+    }
 
-        for (BlockPos pos : blocks) {
-            blockToMultiblock.put(pos, id);
+    // Handles are counted up from nextHandle, which is saved with the registry, so a new multiblock never
+    // takes the handle still saved in a block entity of an unloaded chunk. Ids from before handles are
+    // mapped through legacyHandles (see remapLegacyHandle), which hands out handles from the same counter.
+    private int allocateHandle() {
+        // Skips handles still in use, e.g. after the counter wrapped around
+        while (nextHandle == NO_MULTIBLOCK || multiblocks.containsKey(nextHandle) || pendingRehydrations.containsKey(nextHandle)) {
+            nextHandle++;
         }
+        markRegistryDirty();
+        return nextHandle++;
+    }
 
-        boolean isOnShip = oldData != null ? oldData.isOnShip : isBlockOnShip(blocks.iterator().next());
-        Long shipId = oldData != null ? oldData.shipId : getShipIdForBlock(blocks.iterator().next());
+    // Handle for a multiblock saved with a string id before handles were used. Every block entity of that
+    // multiblock gets the same handle; the first one to ask allocates it and the table remembers it.
+    public int remapLegacyHandle(String multiblockId) {
+        Integer handle = legacyHandles.get(multiblockId);
+        if (handle == null) {
+            handle = allocateHandle();
+            legacyHandles.put(multiblockId, handle);
+            Logger.sendMessage("Multiblock " + multiblockId + " saved with a string id now has handle " + handle, false);
+        }
+        return handle;
+    }
+
+    private void indexBlocks(LongSet blocks, int multiblockId) {
+        LongIterator iterator = blocks.iterator();
+        while (iterator.hasNext()) {
+            blockToMultiblock.put(iterator.nextLong(), multiblockId);
+        }
+    }
 
-        multiblocks.put(id, new MultiblockData(id, new HashSet<>(blocks), isOnShip, shipId));
+    private void unindexBlocks(LongSet blocks) {
+        LongIterator iterator = blocks.iterator();
+        while (iterator.hasNext()) {
+            blockToMultiblock.remove(iterator.nextLong());
+        }
+    }
 
-        sendBlockCountSync(id, blocks.size());
+    public void removeMultiblock(int id) {
+        if (level.isClientSide) return;
+        MultiblockData data = multiblocks.remove(id);
+        if (data == null) return;
+        unindexBlocks(data.blocks);
+        groundIndex.remove(id);
+        removeTransferLinks(id);
+        for (BlockPos chestPos : data.chests) {
+            IntSet multiblockIds = chestToMultiblocks.get(chestPos.asLong());
+            if (multiblockIds != null) {
+                multiblockIds.remove(id);
+                if (multiblockIds.isEmpty()) {
+                    chestToMultiblocks.remove(chestPos.asLong());
+                }
+            }
+        }
 
-        Logger.sendMessage("Updated multiblock " + id + " with " + blocks.size() +
-                " blocks (on ship: " + isOnShip + ")", false);
+        markRegistryDirty();
+        Logger.sendMessage("Removed multiblock " + id, false);
     }
 
-    public String getMultiblockForBlock(BlockPos pos) {
-        if (level.isClientSide) return null;
-        return blockToMultiblock.get(pos);
+    public int getMultiblockForBlock(BlockPos pos) {
+        if (level.isClientSide) return NO_MULTIBLOCK;
+        return blockToMultiblock.get(pos.asLong());
     }
 
-    public Set<BlockPos> getMultiblockBlocks(String id) {
-        if (level.isClientSide) return Collections.emptySet();
+    public int getMultiblockBlockCount(int id) {
+        if (level.isClientSide) return 0;
         MultiblockData data = multiblocks.get(id);
-        return data != null ? new HashSet<>(data.blocks) : Collections.emptySet();
+        return data != null ? data.blocks.size() : 0;
     }
 
-    public int getMultiblockChestCount(String id) {
+    public int getMultiblockChestCount(int id) {
         if (level.isClientSide) return 0;
-        Set<BlockPos> chests = multiblockChests.get(id);
-        return chests != null ? chests.size() : 0;
+        MultiblockData data = multiblocks.get(id);
+        return data != null ? data.chests.size() : 0;
     }
 
-    public boolean getMultiblockMode(String multiblockId) {
-        return multiblockModes.getOrDefault(multiblockId, true);
+    public boolean getMultiblockMode(int multiblockId) {
+        MultiblockData data = multiblocks.get(multiblockId);
+        return data == null || data.importMode;
     }
 
-    public void toggleMultiblockMode(String multiblockId) {
-        boolean currentMode = multiblockModes.getOrDefault(multiblockId, true);
-        boolean newMode = !currentMode;
-        multiblockModes.put(multiblockId, newMode);
+    public void toggleMultiblockMode(int multiblockId) {
+        MultiblockData data = multiblocks.get(multiblockId);
+        if (data == null) return;
+        boolean newMode = !data.importMode;
+        data.importMode = newMode;
+        markTransferDataDirty(multiblockId);
 
         // Update ALL block entities in the multiblock
-        Set<BlockPos> blocks = getMultiblockBlocks(multiblockId);
-        for (BlockPos pos : blocks) {
-            updateBlockEntityMode(pos, newMode);
+        LongIterator iterator = data.blocks.iterator();
+        while (iterator.hasNext()) {
+            updateBlockEntityMode(BlockPos.of(iterator.nextLong()), newMode);
         }
 
         Logger.sendMessage("Multiblock " + multiblockId + " toggled to " + (newMode ? "import" : "export") + " mode", false);
@@ -896,8 +1683,8 @@ public class MultiblockManager {
     }
 
     public void handleChestNearMultiblock(BlockPos chestPos, BlockPos multiblockPos) {
-        String multiblockId = getMultiblockForBlock(multiblockPos);
-        if (multiblockId == null) {
+        int multiblockId = getMultiblockForBlock(multiblockPos);
+        if (multiblockId == NO_MULTIBLOCK) {
             Logger.sendMessage("No multiblock found for block at " + multiblockPos, false);
             return;
         }
@@ -907,25 +1694,35 @@ public class MultiblockManager {
         BlockPos primaryChestPos = getOrCreateChestGroup(chestPos);
 
         if (isAnyChestInGroupConnectedToMultiblock(primaryChestPos, multiblockId)) {
-            if (!multiblockChests.get(multiblockId).contains(primaryChestPos)) {
-                multiblockChests.get(multiblockId).add(primaryChestPos);
-                chestToMultiblocks.computeIfAbsent(primaryChestPos, k -> new HashSet<>()).add(multiblockId);
+            if (!multiblocks.get(multiblockId).chests.contains(primaryChestPos)) {
+                multiblocks.get(multiblockId).chests.add(primaryChestPos);
+                chestToMultiblocks.computeIfAbsent(primaryChestPos.asLong(), k -> new IntOpenHashSet()).add(multiblockId);
+                markTransferDataDirty(multiblockId);
 
-                sendChestCountSync(multiblockId, multiblockChests.get(multiblockId).size());
-                Logger.sendMessage("Added chest group (primary: " + primaryChestPos + ") to multiblock " + multiblockId + ". Total chests: " + multiblockChests.get(multiblockId).size(), false);
+                sendChestCountSync(multiblockId, multiblocks.get(multiblockId).chests.size());
+                Logger.sendMessage("Added chest group (primary: " + primaryChestPos + ") to multiblock " + multiblockId + ". Total chests: " + multiblocks.get(multiblockId).chests.size(), false);
             }
         }
     }
 
-    private boolean isAnyChestInGroupConnectedToMultiblock(BlockPos primaryChestPos, String multiblockId) {
-        Set<BlockPos> chestGroup = chestGroups.get(primaryChestPos);
-        if (chestGroup == null) return false;
-        Set<BlockPos> multiblockBlocks = getMultiblockBlocks(multiblockId);
-        for (BlockPos chestPos : chestGroup) {
-            for (BlockPos multiblockBlockPos : multiblockBlocks) {
-                for (Direction dir : ChestHelper.getValidConnectionDirections(level, multiblockBlockPos)) {
-                    if (multiblockBlockPos.relative(dir).equals(chestPos)) {
-                        Logger.sendMessage("Chest at " + chestPos + " is connected to multiblock " + multiblockId + " via block at " + multiblockBlockPos, false);
+    private boolean isAnyChestInGroupConnectedToMultiblock(BlockPos primaryChestPos, int multiblockId) {
+        LongSet chestGroup = chestGroups.get(primaryChestPos.asLong());
+        MultiblockData data = multiblocks.get(multiblockId);
+        if (chestGroup == null || data == null) return false;
+
+        // Look at the neighbours of each chest instead of at the neighbours of every multiblock block
+        LongIterator chests = chestGroup.iterator();
+        while (chests.hasNext()) {
+            long chestPos = chests.nextLong();
+            for (Direction dir : DIRECTIONS) {
+                // dir points from the multiblock block to the chest
+                long blockPos = BlockPos.offset(chestPos, dir.getOpposite());
+                if (!data.blocks.contains(blockPos)) continue;
+
+                BlockPos multiblockBlockPos = BlockPos.of(blockPos);
+                for (Direction validDir : ChestHelper.getValidConnectionDirections(level, multiblockBlockPos)) {
+                    if (validDir == dir) {
+                        Logger.sendMessage("Chest at " + BlockPos.of(chestPos) + " is connected to multiblock " + multiblockId + " via block at " + multiblockBlockPos, false);
                         return true;
                     }
                 }
@@ -934,21 +1731,27 @@ public class MultiblockManager {
         return false;
     }
 
+    // Primary chest of the group a chest belongs to, null if the chest is not tracked
+    private BlockPos getPrimaryChest(BlockPos chestPos) {
+        long primaryPos = chestToPrimary.get(chestPos.asLong());
+        return primaryPos != NO_POS ? BlockPos.of(primaryPos) : null;
+    }
+
     public void handlePossibleChestRemoval(BlockPos possibleChestPos) {
-        if (chestToPrimary.containsKey(possibleChestPos)) {
+        if (chestToPrimary.containsKey(possibleChestPos.asLong())) {
             Logger.sendMessage("Possible chest removal at " + possibleChestPos, false);
             handleChestRemoved(possibleChestPos);
         }
     }
 
     private void handleChestRemoved(BlockPos chestPos) {
-        BlockPos primaryPos = chestToPrimary.get(chestPos);
+        BlockPos primaryPos = getPrimaryChest(chestPos);
         if (primaryPos == null) {
             Logger.sendMessage("No primary chest found for removed chest at " + chestPos, false);
             return;
         }
 
-        Set<String> connectedMultiblocks = chestToMultiblocks.get(primaryPos);
+        IntSet connectedMultiblocks = chestToMultiblocks.get(primaryPos.asLong());
         if (connectedMultiblocks == null) {
             Logger.sendMessage("No multiblocks found for primary chest at " + primaryPos, false);
             updateChestGroupAfterBreak(chestPos);
@@ -958,7 +1761,7 @@ public class MultiblockManager {
         Logger.sendMessage("Processing chest removal at " + chestPos + " from multiblocks: " + connectedMultiblocks, false);
 
         boolean anyConnected = false;
-        for (String multiblockId : connectedMultiblocks) {
+        for (int multiblockId : connectedMultiblocks) {
             if (isAnyChestInGroupConnectedToMultiblock(primaryPos, multiblockId)) {
                 anyConnected = true;
                 break;
@@ -966,14 +1769,15 @@ public class MultiblockManager {
         }
 
         if (!anyConnected) {
-            for (String multiblockId : connectedMultiblocks) {
-                multiblockChests.get(multiblockId).remove(primaryPos);
+            for (int multiblockId : connectedMultiblocks) {
+                multiblocks.get(multiblockId).chests.remove(primaryPos);
+                markTransferDataDirty(multiblockId);
                 Logger.sendMessage("Removed chest group (primary: " + primaryPos + ") from multiblock " + multiblockId, false);
             }
-            chestToMultiblocks.remove(primaryPos);
+            chestToMultiblocks.remove(primaryPos.asLong());
 
-            for (String multiblockId : connectedMultiblocks) {
-                sendChestCountSync(multiblockId, multiblockChests.get(multiblockId).size());
+            for (int multiblockId : connectedMultiblocks) {
+                sendChestCountSync(multiblockId, multiblocks.get(multiblockId).chests.size());
             }
         }
 
@@ -981,140 +1785,160 @@ public class MultiblockManager {
     }
 
     private BlockPos getOrCreateChestGroup(BlockPos chestPos) {
-        BlockPos existingPrimary = chestToPrimary.get(chestPos);
+        BlockPos existingPrimary = getPrimaryChest(chestPos);
         if (existingPrimary != null) {
             return existingPrimary;
         }
 
         Set<BlockPos> connectedChests = ChestHelper.findConnectedChests(level, chestPos);
-        BlockPos targetPrimary = null;
+        long targetPrimary = NO_POS;
         for (BlockPos connectedChest : connectedChests) {
-            BlockPos primaryForConnected = chestToPrimary.get(connectedChest);
-            if (primaryForConnected != null && chestGroups.containsKey(primaryForConnected)) {
+            long primaryForConnected = chestToPrimary.get(connectedChest.asLong());
+            if (primaryForConnected != NO_POS && chestGroups.containsKey(primaryForConnected)) {
                 targetPrimary = primaryForConnected;
                 break;
             }
         }
 
-        if (targetPrimary != null) {
-            Set<BlockPos> existingGroup = chestGroups.get(targetPrimary);
-            Set<BlockPos> mergedGroup = new HashSet<>(existingGroup);
-            mergedGroup.addAll(connectedChests);
-            chestGroups.put(targetPrimary, mergedGroup);
-            for (BlockPos pos : mergedGroup) {
-                chestToPrimary.put(pos, targetPrimary);
+        if (targetPrimary != NO_POS) {
+            LongSet mergedGroup = chestGroups.get(targetPrimary);
+            for (BlockPos pos : connectedChests) {
+                mergedGroup.add(pos.asLong());
             }
-            Logger.sendMessage("MERGED chest group - Input: " + chestPos + ", Joined existing primary: " + targetPrimary + ", All members: " + mergedGroup, false);
-            return targetPrimary;
+            forgetChestGroupCaches(targetPrimary);
+            LongIterator members = mergedGroup.iterator();
+            while (members.hasNext()) {
+                chestToPrimary.put(members.nextLong(), targetPrimary);
+            }
+            Logger.sendMessage("MERGED chest group - Input: " + chestPos + ", Joined existing primary: " + BlockPos.of(targetPrimary) + ", All members: " + unpackPositions(mergedGroup), false);
+            return BlockPos.of(targetPrimary);
         }
 
-        BlockPos primaryPos;
+        LongSet chestGroup = packPositions(connectedChests);
+        long primaryPos;
         if (connectedChests.size() == 1) {
-            primaryPos = chestPos;
+            primaryPos = chestPos.asLong();
         } else {
-            primaryPos = determineConsistentPrimaryPosition(connectedChests);
+            primaryPos = determineConsistentPrimaryPosition(chestGroup);
         }
 
-        registerChestGroup(primaryPos, connectedChests);
-        Logger.sendMessage("Created NEW chest group - Input: " + chestPos + ", Primary: " + primaryPos + ", All members: " + connectedChests, false);
-        return primaryPos;
+        registerChestGroup(primaryPos, chestGroup);
+        Logger.sendMessage("Created NEW chest group - Input: " + chestPos + ", Primary: " + BlockPos.of(primaryPos) + ", All members: " + connectedChests, false);
+        return BlockPos.of(primaryPos);
     }
 
-    private BlockPos determineConsistentPrimaryPosition(Set<BlockPos> chestGroup) {
-        return chestGroup.stream()
-                .min((pos1, pos2) -> {
-                    int xCompare = Integer.compare(pos1.getX(), pos2.getX());
-                    if (xCompare != 0) return xCompare;
-                    int zCompare = Integer.compare(pos1.getZ(), pos2.getZ());
-                    if (zCompare != 0) return zCompare;
-                    return Integer.compare(pos1.getY(), pos2.getY());
-                })
-                .orElse(chestGroup.iterator().next());
+    // Lowest X, then Z, then Y
+    private static long determineConsistentPrimaryPosition(LongSet chestGroup) {
+        LongIterator iterator = chestGroup.iterator();
+        long primary = iterator.nextLong();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            int xCompare = Integer.compare(BlockPos.getX(pos), BlockPos.getX(primary));
+            int zCompare = Integer.compare(BlockPos.getZ(pos), BlockPos.getZ(primary));
+            if (xCompare < 0 || (xCompare == 0 && (zCompare < 0 || (zCompare == 0 && BlockPos.getY(pos) < BlockPos.getY(primary))))) {
+                primary = pos;
+            }
+        }
+        return primary;
     }
 
-    private void registerChestGroup(BlockPos primaryPos, Set<BlockPos> chestGroup) {
+    private void registerChestGroup(long primaryPos, LongSet chestGroup) {
         chestGroups.put(primaryPos, chestGroup);
-        for (BlockPos pos : chestGroup) {
-            chestToPrimary.put(pos, primaryPos);
+        forgetChestGroupCaches(primaryPos);
+        markRegistryDirty();
+        LongIterator members = chestGroup.iterator();
+        while (members.hasNext()) {
+            chestToPrimary.put(members.nextLong(), primaryPos);
         }
     }
 
     private void updateChestGroupAfterBreak(BlockPos brokenChestPos) {
-        BlockPos primaryPos = chestToPrimary.get(brokenChestPos);
-        if (primaryPos == null) return;
-        Set<BlockPos> chestGroup = chestGroups.get(primaryPos);
+        long brokenPos = brokenChestPos.asLong();
+        long primaryPos = chestToPrimary.get(brokenPos);
+        if (primaryPos == NO_POS) return;
+        LongSet chestGroup = chestGroups.get(primaryPos);
         if (chestGroup == null) return;
 
-        chestGroup.remove(brokenChestPos);
-        chestToPrimary.remove(brokenChestPos);
+        chestGroup.remove(brokenPos);
+        chestToPrimary.remove(brokenPos);
+        forgetChestGroupCaches(primaryPos);
+        markRegistryDirty();
 
         if (chestGroup.isEmpty()) {
             chestGroups.remove(primaryPos);
-            Set<String> connectedMultiblocks = chestToMultiblocks.remove(primaryPos);
+            IntSet connectedMultiblocks = chestToMultiblocks.remove(primaryPos);
             if (connectedMultiblocks != null) {
-                for (String multiblockId : connectedMultiblocks) {
-                    multiblockChests.get(multiblockId).remove(primaryPos);
+                BlockPos primaryChestPos = BlockPos.of(primaryPos);
+                for (int multiblockId : connectedMultiblocks) {
+                    multiblocks.get(multiblockId).chests.remove(primaryChestPos);
+                    markTransferDataDirty(multiblockId);
                 }
             }
         } else {
-            BlockPos newPrimary = determineConsistentPrimaryPosition(chestGroup);
-            if (!newPrimary.equals(primaryPos)) {
+            long newPrimary = determineConsistentPrimaryPosition(chestGroup);
+            if (newPrimary != primaryPos) {
                 updatePrimaryChestPositionForGroup(primaryPos, newPrimary, chestGroup);
             }
-            validateChestConnectionsForGroup(newPrimary);
+            validateChestConnectionsForGroup(BlockPos.of(newPrimary));
         }
     }
 
     private void validateChestConnectionsForGroup(BlockPos primaryChestPos) {
-        Set<String> connectedMultiblocks = chestToMultiblocks.get(primaryChestPos);
+        IntSet connectedMultiblocks = chestToMultiblocks.get(primaryChestPos.asLong());
         if (connectedMultiblocks == null) return;
         boolean needsUpdate = false;
-        Set<String> multiblocksToRemove = new HashSet<>();
-        for (String multiblockId : connectedMultiblocks) {
+        IntSet multiblocksToRemove = new IntOpenHashSet();
+        for (int multiblockId : connectedMultiblocks) {
             if (!isAnyChestInGroupConnectedToMultiblock(primaryChestPos, multiblockId)) {
                 multiblocksToRemove.add(multiblockId);
                 needsUpdate = true;
             }
         }
-        for (String multiblockId : multiblocksToRemove) {
+        for (int multiblockId : multiblocksToRemove) {
             connectedMultiblocks.remove(multiblockId);
-            multiblockChests.get(multiblockId).remove(primaryChestPos);
+            multiblocks.get(multiblockId).chests.remove(primaryChestPos);
+            markTransferDataDirty(multiblockId);
             Logger.sendMessage("Removed disconnected multiblock " + multiblockId + " from chest group " + primaryChestPos, false);
         }
         if (needsUpdate) {
-            for (String multiblockId : multiblocksToRemove) {
-                sendChestCountSync(multiblockId, multiblockChests.get(multiblockId).size());
+            for (int multiblockId : multiblocksToRemove) {
+                sendChestCountSync(multiblockId, multiblocks.get(multiblockId).chests.size());
             }
         }
     }
 
-    private void updatePrimaryChestPositionForGroup(BlockPos oldPrimary, BlockPos newPrimary, Set<BlockPos> chestGroup) {
-        Set<String> multiblockIds = chestToMultiblocks.get(oldPrimary);
+    private void updatePrimaryChestPositionForGroup(long oldPrimary, long newPrimary, LongSet chestGroup) {
+        BlockPos oldPrimaryPos = BlockPos.of(oldPrimary);
+        BlockPos newPrimaryPos = BlockPos.of(newPrimary);
+        IntSet multiblockIds = chestToMultiblocks.get(oldPrimary);
         if (multiblockIds != null) {
-            for (String multiblockId : multiblockIds) {
-                multiblockChests.get(multiblockId).remove(oldPrimary);
-                multiblockChests.get(multiblockId).add(newPrimary);
+            for (int multiblockId : multiblockIds) {
+                multiblocks.get(multiblockId).chests.remove(oldPrimaryPos);
+                multiblocks.get(multiblockId).chests.add(newPrimaryPos);
+                markTransferDataDirty(multiblockId);
             }
             chestToMultiblocks.remove(oldPrimary);
             chestToMultiblocks.put(newPrimary, multiblockIds);
         }
         chestGroups.remove(oldPrimary);
+        forgetChestGroupCaches(oldPrimary);
         registerChestGroup(newPrimary, chestGroup);
 
-        Logger.sendMessage("Updated primary chest from " + oldPrimary + " to " + newPrimary + " for group: " + chestGroup, false);
+        Logger.sendMessage("Updated primary chest from " + oldPrimaryPos + " to " + newPrimaryPos + " for group: " + unpackPositions(chestGroup), false);
     }
 
-    private void validateChestConnectionsAfterBlockRemoval(String multiblockId) {
-        Set<BlockPos> chestsToCheck = new HashSet<>(multiblockChests.get(multiblockId));
+    private void validateChestConnectionsAfterBlockRemoval(int multiblockId) {
+        Set<BlockPos> chestsToCheck = new HashSet<>(multiblocks.get(multiblockId).chests);
         boolean needsUpdate = false;
         for (BlockPos primaryChestPos : chestsToCheck) {
             if (!isAnyChestInGroupConnectedToMultiblock(primaryChestPos, multiblockId)) {
-                multiblockChests.get(multiblockId).remove(primaryChestPos);
-                Set<String> multiblockIds = chestToMultiblocks.get(primaryChestPos);
+                multiblocks.get(multiblockId).chests.remove(primaryChestPos);
+                markTransferDataDirty(multiblockId);
+                IntSet multiblockIds = chestToMultiblocks.get(primaryChestPos.asLong());
                 if (multiblockIds != null) {
                     multiblockIds.remove(multiblockId);
                     if (multiblockIds.isEmpty()) {
-                        chestToMultiblocks.remove(primaryChestPos);
+                        chestToMultiblocks.remove(primaryChestPos.asLong());
                     }
                 }
                 needsUpdate = true;
@@ -1122,187 +1946,498 @@ public class MultiblockManager {
             }
         }
         if (needsUpdate) {
-            sendChestCountSync(multiblockId, multiblockChests.get(multiblockId).size());
+            sendChestCountSync(multiblockId, multiblocks.get(multiblockId).chests.size());
         }
     }
 
+    // Placements and removals are queued and applied together at the end of the tick, so a schematic
+    // paste or ship assembly placing thousands of transporters costs about one big merge
     public void onBlockPlaced(BlockPos newPos) {
         if (level.isClientSide) return;
-        Logger.sendMessage("Processing block placement at " + newPos, true);
-        if (blockToMultiblock.containsKey(newPos)) {
-            Logger.sendMessage("WARNING: Block at " + newPos + " already in multiblock " + blockToMultiblock.get(newPos), true);
-            return;
+        Logger.sendMessage("Queued block placement at " + newPos, true);
+        pendingPlacements.add(newPos.asLong());
+    }
+
+    public void onBlockRemoved(BlockPos removedPos) {
+        if (level.isClientSide) return;
+        // Placed and removed within the same tick - it never joined a multiblock
+        if (pendingPlacements.remove(removedPos.asLong())) return;
+        pendingRemovals.add(removedPos.asLong());
+    }
+
+    private void processPendingBlockChanges() {
+        // Removals first, so a block replaced within the tick leaves its old multiblock before rejoining
+        if (!pendingRemovals.isEmpty()) {
+            long[] removals = pendingRemovals.toLongArray();
+            pendingRemovals.clear();
+            processBlockRemovals(removals);
+        }
+        // Block state of every new block, read once
+        Long2ObjectOpenHashMap<BlockState> placedStates = new Long2ObjectOpenHashMap<>(pendingPlacements.size());
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        LongIterator pending = pendingPlacements.iterator();
+        while (pending.hasNext()) {
+            long pos = pending.nextLong();
+            cursor.set(pos);
+            if (!level.isLoaded(cursor)) continue;
+            if (blockToMultiblock.get(pos) != NO_MULTIBLOCK) {
+                // Copied with its block entity (VS assembly) and registered under its saved handle already
+                Logger.sendMessage("Block at " + BlockPos.of(pos) + " already in multiblock " + blockToMultiblock.get(pos), true);
+                continue;
+            }
+            // Copied with its block entity (VS assembly) before the block entity ticked: it still carries its
+            // handle and mode, so it rejoins that multiblock below instead of being grouped as a new block
+            if (level.getBlockEntity(cursor) instanceof ShipItemTransportBlockEntity blockEntity && blockEntity.registerCopiedBlock()) {
+                continue;
+            }
+            BlockState state = level.getBlockState(cursor);
+            if (state.getBlock() instanceof ShipItemTransportBlock) {
+                placedStates.put(pos, state);
+            }
         }
-        Set<String> adjacentMultiblocks = findAdjacentMultiblocks(newPos);
-        if (adjacentMultiblocks.isEmpty()) {
-            createSingleBlockMultiblock(newPos);
-        } else if (adjacentMultiblocks.size() == 1) {
-            String targetId = adjacentMultiblocks.iterator().next();
-            joinMultiblock(newPos, targetId);
-        } else {
-            mergeMultiblocks(newPos, adjacentMultiblocks);
-        }
-    }
-
-    private void createSingleBlockMultiblock(BlockPos pos) {
-        Set<BlockPos> singleBlock = Collections.singleton(pos);
-        boolean isOnShip = isBlockOnShip(pos);
-        Long shipId = isOnShip ? getShipIdForBlock(pos) : null;
-        String newId = createMultiblock(singleBlock, true, isOnShip, shipId);
-        updateBlockEntity(pos, newId, singleBlock);
-        Logger.sendMessage("Created single-block multiblock " + newId + " at " + pos + " (on ship: " + isOnShip + ")", false);
-    }
-
-    private void joinMultiblock(BlockPos newPos, String targetId) {
-        MultiblockData targetData = multiblocks.get(targetId);
-        if (targetData == null) return;
-        Set<BlockPos> blocks = new HashSet<>(targetData.blocks);
-        blocks.add(newPos);
-        updateMultiblock(targetId, blocks, targetData.isOnShip, targetData.shipId);
-        updateBlockEntity(newPos, targetId, blocks);
-        Logger.sendMessage("Added block at " + newPos + " to multiblock " + targetId + " (inherited ship status: " + targetData.isOnShip + ")", false);
-    }
-
-    private void mergeMultiblocks(BlockPos newPos, Set<String> multiblockIds) {
-        Direction requiredFacing = level.getBlockState(newPos).getValue(ShipItemTransportBlock.FACING);
-        for (String id : multiblockIds) {
-            Set<BlockPos> blocks = getMultiblockBlocks(id);
-            if (!blocks.isEmpty()) {
-                BlockPos samplePos = blocks.iterator().next();
-                Direction sampleFacing = level.getBlockState(samplePos).getValue(ShipItemTransportBlock.FACING);
-                if (sampleFacing != requiredFacing) {
-                    Logger.sendMessage("Cannot merge multiblocks with different facing directions", false);
-                    return;
+        int placed = pendingPlacements.size();
+        pendingPlacements.clear();
+
+        // Loaded and copied multiblocks next, so new blocks next to them join them
+        if (!pendingRehydrations.isEmpty()) {
+            processPendingRehydrations();
+        }
+        if (placed == 0) return;
+
+        // Contiguous new blocks are placed as one group
+        LongSet grouped = new LongOpenHashSet(placedStates.size());
+        LongArrayList stack = new LongArrayList();
+        int groups = 0;
+        LongIterator starts = placedStates.keySet().iterator();
+        while (starts.hasNext()) {
+            long start = starts.nextLong();
+            if (!grouped.add(start)) continue;
+
+            LongSet group = new LongOpenHashSet();
+            group.add(start);
+            stack.add(start);
+            while (!stack.isEmpty()) {
+                long current = stack.popLong();
+                BlockState currentState = placedStates.get(current);
+                for (Direction dir : DIRECTIONS) {
+                    long neighbor = BlockPos.offset(current, dir);
+                    BlockState neighborState = placedStates.get(neighbor);
+                    if (neighborState != null && !grouped.contains(neighbor) &&
+                            canConnect(currentState, current, neighborState, neighbor)) {
+                        grouped.add(neighbor);
+                        group.add(neighbor);
+                        stack.add(neighbor);
+                    }
                 }
             }
+            placeBlockGroup(group, placedStates);
+            groups++;
         }
 
-        String mainId = multiblockIds.iterator().next();
-        MultiblockData mainData = multiblocks.get(mainId);
-        Set<BlockPos> allMergedBlocks = new HashSet<>(getMultiblockBlocks(mainId));
-        allMergedBlocks.add(newPos);
+        Logger.sendMessage("Processed " + placed + " queued placement(s) in " + groups + " group(s)", false);
+    }
 
-        boolean mergedIsOnShip = mainData.isOnShip;
-        Long mergedShipId = mainData.shipId;
-        for (String id : multiblockIds) {
-            MultiblockData data = multiblocks.get(id);
-            if (data != null && data.isOnShip) {
-                mergedIsOnShip = true;
-                mergedShipId = data.shipId;
-                break;
+    // Connects the chests around the given blocks of one multiblock, looking at each chest once
+    private void connectNearbyChests(LongSet blocks) {
+        Set<BlockPos> checkedChests = new HashSet<>();
+        LongIterator iterator = blocks.iterator();
+        while (iterator.hasNext()) {
+            BlockPos pos = BlockPos.of(iterator.nextLong());
+            for (Direction dir : ChestHelper.getValidConnectionDirections(level, pos)) {
+                BlockPos chestPos = pos.relative(dir);
+                if (checkedChests.add(chestPos) && ChestHelper.isChest(level, chestPos)) {
+                    handleChestNearMultiblock(chestPos, pos);
+                }
             }
         }
+    }
+
+    // Block entities loaded with a saved handle register here instead of rebuilding the multiblock one
+    // block at a time; all blocks of a multiblock queued in one tick are added in a single pass
+    public void queueRehydration(int multiblockId, BlockPos pos, boolean importMode) {
+        if (level.isClientSide || multiblockId == NO_MULTIBLOCK) return;
+        // Already known from the saved registry
+        if (blockToMultiblock.get(pos.asLong()) == multiblockId) return;
+        PendingRehydration pending = pendingRehydrations.get(multiblockId);
+        if (pending == null) {
+            pending = new PendingRehydration(importMode);
+            pendingRehydrations.put(multiblockId, pending);
+        }
+        pending.blocks.add(pos.asLong());
+    }
+
+    private void processPendingRehydrations() {
+        int[] handles = pendingRehydrations.keySet().toIntArray();
+        for (int handle : handles) {
+            rehydrateMultiblock(handle, pendingRehydrations.get(handle));
+        }
+        pendingRehydrations.clear();
+    }
 
-        Set<BlockPos> allPrimaryChests = new HashSet<>();
-        for (String id : multiblockIds) {
-            Set<BlockPos> chests = multiblockChests.get(id);
-            if (chests != null) {
-                allPrimaryChests.addAll(chests);
+    private void rehydrateMultiblock(int multiblockId, PendingRehydration pending) {
+        // Blocks still indexed from before a chunk unload are already in place
+        LongSet blocks = new LongOpenHashSet(pending.blocks.size());
+        LongIterator iterator = pending.blocks.iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            if (blockToMultiblock.get(pos) == NO_MULTIBLOCK) {
+                blocks.add(pos);
             }
         }
+        if (blocks.isEmpty()) return;
 
-        for (String id : multiblockIds) {
-            if (!id.equals(mainId)) {
-                allMergedBlocks.addAll(getMultiblockBlocks(id));
-                removeMultiblock(id);
+        MultiblockData data = multiblocks.get(multiblockId);
+        if (data == null) {
+            BlockPos firstBlock = BlockPos.of(blocks.iterator().nextLong());
+            boolean isOnShip = isBlockOnShip(firstBlock);
+            Long shipId = isOnShip ? getShipIdForBlock(firstBlock) : null;
+            data = new MultiblockData(multiblockId, blocks, isOnShip, shipId, pending.importMode);
+            multiblocks.put(multiblockId, data);
+        } else {
+            LongIterator added = blocks.iterator();
+            while (added.hasNext()) {
+                data.addBlock(added.nextLong());
+            }
+        }
+        indexBlocks(blocks, multiblockId);
+        markTransferDataDirty(multiblockId);
+
+        connectNearbyChests(blocks);
+        sendBlockCountSync(multiblockId, data.blocks.size());
+
+        Logger.sendMessage("Rehydrated " + blocks.size() + " block(s) of multiblock " + multiblockId + ", " + data.blocks.size() +
+                " blocks loaded (on ship: " + data.isOnShip + ", shipId: " + data.shipId + ")", false);
+    }
+
+    // Adds a group of new contiguous blocks: a new multiblock if it touches none, otherwise the largest
+    // touching multiblock absorbs the group and every other touching multiblock
+    private void placeBlockGroup(LongSet group, Long2ObjectOpenHashMap<BlockState> placedStates) {
+        IntSet adjacentMultiblocks = new IntOpenHashSet();
+        BlockPos.MutableBlockPos neighborPos = new BlockPos.MutableBlockPos();
+        LongIterator iterator = group.iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            BlockState state = placedStates.get(pos);
+            for (Direction dir : DIRECTIONS) {
+                long neighbor = BlockPos.offset(pos, dir);
+                int neighborId = blockToMultiblock.get(neighbor);
+                if (neighborId == NO_MULTIBLOCK || adjacentMultiblocks.contains(neighborId)) continue;
+                neighborPos.set(neighbor);
+                if (canConnect(state, pos, level.getBlockState(neighborPos), neighbor) && isValidBlock(neighborPos)) {
+                    adjacentMultiblocks.add(neighborId);
+                }
             }
         }
 
-        updateMultiblock(mainId, allMergedBlocks, mergedIsOnShip, mergedShipId);
+        MultiblockData data;
+        LongSet relabeled; // blocks whose block entity gets a new handle
+        if (adjacentMultiblocks.isEmpty()) {
+            BlockPos firstBlock = BlockPos.of(group.iterator().nextLong());
+            boolean isOnShip = isBlockOnShip(firstBlock);
+            Long shipId = isOnShip ? getShipIdForBlock(firstBlock) : null;
+            data = multiblocks.get(createMultiblock(group, true, isOnShip, shipId));
+            relabeled = group;
+        } else {
+            // Union by size: the largest multiblock absorbs the others, so only their blocks are relabeled
+            data = null;
+            for (int id : adjacentMultiblocks) {
+                MultiblockData candidate = multiblocks.get(id);
+                if (candidate != null && (data == null || candidate.blocks.size() > data.blocks.size())) {
+                    data = candidate;
+                }
+            }
+            if (data == null) return;
+
+            for (int id : adjacentMultiblocks) {
+                MultiblockData candidate = multiblocks.get(id);
+                if (candidate != null && candidate.isOnShip) {
+                    data.isOnShip = true;
+                    data.shipId = candidate.shipId;
+                    break;
+                }
+            }
 
-        for (BlockPos primaryChestPos : allPrimaryChests) {
-            if (!multiblockChests.get(mainId).contains(primaryChestPos)) {
-                multiblockChests.get(mainId).add(primaryChestPos);
-                chestToMultiblocks.computeIfAbsent(primaryChestPos, k -> new HashSet<>()).add(mainId);
+            relabeled = new LongOpenHashSet(group);
+            for (int id : adjacentMultiblocks) {
+                if (id == data.handle) continue;
+                MultiblockData absorbed = multiblocks.get(id);
+                if (absorbed == null) continue;
+                absorbMultiblock(data, absorbed);
+                relabeled.addAll(absorbed.blocks);
             }
+
+            // Added in place - placing blocks costs the same however large the multiblock is
+            iterator = group.iterator();
+            while (iterator.hasNext()) {
+                long pos = iterator.nextLong();
+                data.addBlock(pos);
+                blockToMultiblock.put(pos, data.handle);
+            }
+            markTransferDataDirty(data.handle);
         }
+        int multiblockId = data.handle;
 
-        for (BlockPos pos : allMergedBlocks) {
-            updateBlockEntity(pos, mainId, allMergedBlocks);
+        iterator = relabeled.iterator();
+        while (iterator.hasNext()) {
+            updateBlockEntity(BlockPos.of(iterator.nextLong()), multiblockId, data.blocks.size());
         }
 
-        sendBlockCountSyncToAllMergedViewers(multiblockIds, mainId, allMergedBlocks.size());
+        connectNearbyChests(group);
+
+        if (adjacentMultiblocks.size() > 1) {
+            sendBlockCountSyncToAllMergedViewers(adjacentMultiblocks, multiblockId, data.blocks.size());
+            sendChestCountSync(multiblockId, data.chests.size());
+        } else {
+            sendBlockCountSync(multiblockId, data.blocks.size());
+        }
 
-        Logger.sendMessage("Merged " + multiblockIds.size() + " multiblocks into " + mainId + " with " + allMergedBlocks.size() + " blocks" + " (on ship: " + mergedIsOnShip + ", shipId: " + mergedShipId + ")", false);
+        Logger.sendMessage("Placed " + group.size() + " block(s) into multiblock " + multiblockId + " (" + adjacentMultiblocks.size() +
+                " touched, " + relabeled.size() + " relabeled, " + data.blocks.size() + " blocks, on ship: " + data.isOnShip + ")", false);
     }
 
-    private void updateMultiblock(String id, Set<BlockPos> blocks, boolean isOnShip, Long shipId) {
-        if (level.isClientSide) return;
+    // Moves the blocks and chest groups of one multiblock into another and drops it from the registry
+    private void absorbMultiblock(MultiblockData main, MultiblockData absorbed) {
+        int mainId = main.handle;
+        int absorbedId = absorbed.handle;
 
-        MultiblockData oldData = multiblocks.get(id);
+        LongIterator iterator = absorbed.blocks.iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            main.addBlock(pos);
+            blockToMultiblock.put(pos, mainId);
+        }
 
-        if (oldData != null) {
-            for (BlockPos pos : oldData.blocks) {
-                blockToMultiblock.remove(pos);
+        for (BlockPos primaryChestPos : absorbed.chests) {
+            IntSet chestMultiblocks = chestToMultiblocks.get(primaryChestPos.asLong());
+            if (chestMultiblocks != null) {
+                chestMultiblocks.remove(absorbedId);
+                chestMultiblocks.add(mainId);
+            }
+            main.chests.add(primaryChestPos);
+        }
+
+        multiblocks.remove(absorbedId);
+        groundIndex.remove(absorbedId);
+        removeTransferLinks(absorbedId);
+        markTransferDataDirty(mainId);
+    }
+
+    // Removals of one tick, grouped by multiblock so each affected multiblock gets one split search
+    // and one recalculation however many of its blocks were mined or blown up
+    private void processBlockRemovals(long[] removals) {
+        Int2ObjectOpenHashMap<LongArrayList> removedByMultiblock = new Int2ObjectOpenHashMap<>();
+        for (long removed : removals) {
+            int multiblockId = blockToMultiblock.remove(removed);
+            if (multiblockId == NO_MULTIBLOCK) continue;
+            LongArrayList removedBlocks = removedByMultiblock.get(multiblockId);
+            if (removedBlocks == null) {
+                removedBlocks = new LongArrayList();
+                removedByMultiblock.put(multiblockId, removedBlocks);
             }
+            removedBlocks.add(removed);
         }
+        for (int multiblockId : removedByMultiblock.keySet().toIntArray()) {
+            processBlockRemovals(multiblockId, removedByMultiblock.get(multiblockId));
+        }
+    }
 
-        for (BlockPos pos : blocks) {
-            blockToMultiblock.put(pos, id);
+    private void processBlockRemovals(int multiblockId, LongArrayList removed) {
+        Logger.sendMessage("Processing " + removed.size() + " block removal(s) from multiblock " + multiblockId, false);
+        MultiblockData data = multiblocks.get(multiblockId);
+        if (data == null) return;
+        for (int i = 0; i < removed.size(); i++) {
+            data.removeBlock(removed.getLong(i));
+        }
+        if (data.blocks.isEmpty()) {
+            removeMultiblock(multiblockId);
+            return;
         }
 
-        multiblocks.put(id, new MultiblockData(id, new HashSet<>(blocks), isOnShip, shipId));
+        // Parts cut off by the removals become new multiblocks; the largest part keeps this one
+        List<LongSet> splitOffParts = findSplitOffParts(removed, data.blocks);
+        List<Integer> newMultiblockIds = new ArrayList<>();
+        for (LongSet part : splitOffParts) {
+            LongIterator iterator = part.iterator();
+            while (iterator.hasNext()) {
+                data.removeBlock(iterator.nextLong());
+            }
+            int newMultiblockId = createMultiblock(part, data.importMode, data.isOnShip, data.shipId);
+            newMultiblockIds.add(newMultiblockId);
+            multiblocks.get(newMultiblockId).facing = data.facing;
+
+            // Chest groups next to the split-off part move with it
+            for (BlockPos primaryChestPos : data.chests) {
+                if (isAnyChestInGroupConnectedToMultiblock(primaryChestPos, newMultiblockId)) {
+                    multiblocks.get(newMultiblockId).chests.add(primaryChestPos);
+                    chestToMultiblocks.computeIfAbsent(primaryChestPos.asLong(), k -> new IntOpenHashSet()).add(newMultiblockId);
+                }
+            }
+
+            iterator = part.iterator();
+            while (iterator.hasNext()) {
+                BlockPos pos = BlockPos.of(iterator.nextLong());
+                updateBlockEntity(pos, newMultiblockId, part.size());
+                sendBlockCountSyncToViewers(pos, part.size());
+            }
+        }
 
-        sendBlockCountSync(id, blocks.size());
+        markTransferDataDirty(multiblockId);
+        sendBlockCountSync(multiblockId, data.blocks.size());
+        validateChestConnectionsAfterBlockRemoval(multiblockId);
+        for (int newMultiblockId : newMultiblockIds) {
+            sendChestCountSync(newMultiblockId, multiblocks.get(newMultiblockId).chests.size());
+        }
 
-        Logger.sendMessage("Updated multiblock " + id + " with " + blocks.size() +
-                " blocks (on ship: " + isOnShip + ", shipId: " + shipId + ")", false);
+        if (!splitOffParts.isEmpty()) {
+            Logger.sendMessage("Split " + splitOffParts.size() + " part(s) off multiblock " + multiblockId + ", " + data.blocks.size() +
+                    " blocks remain (preserved ship status: " + data.isOnShip + ")", false);
+        }
     }
 
-    public void onBlockRemoved(BlockPos removedPos) {
-        if (level.isClientSide) return;
-        String multiblockId = blockToMultiblock.get(removedPos);
-        if (multiblockId == null) return;
-        Logger.sendMessage("Processing block removal at " + removedPos + " from multiblock " + multiblockId, false);
-        blockToMultiblock.remove(removedPos);
-        Set<BlockPos> remainingBlocks = getMultiblockBlocks(multiblockId);
-        remainingBlocks.remove(removedPos);
-        if (remainingBlocks.isEmpty()) {
-            removeMultiblock(multiblockId);
-        } else {
-            List<Set<BlockPos>> connectedComponents = findConnectedComponents(remainingBlocks);
-            if (connectedComponents.size() == 1) {
-                MultiblockData oldData = multiblocks.get(multiblockId);
-                updateMultiblock(multiblockId, remainingBlocks, oldData.isOnShip, oldData.shipId);
-                validateChestConnectionsAfterBlockRemoval(multiblockId);
-            } else {
-                MultiblockData originalData = multiblocks.get(multiblockId);
-                boolean originalMode = getMultiblockMode(multiblockId);
-                boolean originalIsOnShip = originalData.isOnShip;
-                Long originalShipId = originalData.shipId;
-                removeMultiblock(multiblockId);
-                for (Set<BlockPos> component : connectedComponents) {
-                    if (!component.isEmpty()) {
-                        String newMultiblockId = createMultiblock(component, originalMode, originalIsOnShip, originalShipId);
-                        for (BlockPos pos : component) {
-                            updateBlockEntity(pos, newMultiblockId, component);
-                            sendBlockCountSyncToViewers(pos, component.size());
+    // Parts of a multiblock cut off by removing the given blocks. Searches run outward in lockstep from each
+    // remaining neighbour of a removed block; searches that reach each other are merged, and everything ends as
+    // soon as one search group is left. A group that runs out of blocks first is a cut-off part, so only the
+    // smaller parts are ever walked completely and the part still growing at the end is never returned.
+    // All blocks of a multiblock share its facing and plane, so set membership alone decides connectivity.
+    private List<LongSet> findSplitOffParts(LongArrayList removed, LongSet blocks) {
+        LongSet startSet = new LongOpenHashSet();
+        for (int i = 0; i < removed.size(); i++) {
+            for (Direction dir : DIRECTIONS) {
+                long neighbor = BlockPos.offset(removed.getLong(i), dir);
+                if (blocks.contains(neighbor)) {
+                    startSet.add(neighbor);
+                }
+            }
+        }
+        long[] starts = startSet.toLongArray();
+        int searchCount = starts.length;
+        if (searchCount <= 1) return Collections.emptyList();
+
+        Long2IntOpenHashMap owner = new Long2IntOpenHashMap(); // block -> search that reached it first
+        owner.defaultReturnValue(-1);
+        LongArrayList[] frontier = new LongArrayList[searchCount];
+        LongArrayList[] visited = new LongArrayList[searchCount];
+        int[] group = new int[searchCount]; // union-find over searches that met
+        boolean[] closed = new boolean[searchCount]; // group ran out of blocks
+        for (int i = 0; i < searchCount; i++) {
+            frontier[i] = new LongArrayList();
+            visited[i] = new LongArrayList();
+            frontier[i].add(starts[i]);
+            visited[i].add(starts[i]);
+            owner.put(starts[i], i);
+            group[i] = i;
+        }
+
+        List<LongSet> parts = new ArrayList<>();
+        int openGroups = searchCount;
+        while (openGroups > 1) {
+            // One block per search per round
+            for (int i = 0; i < searchCount; i++) {
+                if (frontier[i].isEmpty()) continue;
+                long current = frontier[i].popLong();
+                for (Direction dir : DIRECTIONS) {
+                    long neighbor = BlockPos.offset(current, dir);
+                    if (!blocks.contains(neighbor)) continue;
+                    int other = owner.get(neighbor);
+                    if (other < 0) {
+                        owner.put(neighbor, i);
+                        visited[i].add(neighbor);
+                        frontier[i].add(neighbor);
+                    } else {
+                        int rootA = findSearchGroup(group, i);
+                        int rootB = findSearchGroup(group, other);
+                        if (rootA != rootB) {
+                            group[rootB] = rootA;
+                            openGroups--;
                         }
                     }
                 }
-                Logger.sendMessage("Split multiblock into " + connectedComponents.size() + " components (preserved ship status: " + originalIsOnShip + ")", false);
+            }
+            if (openGroups <= 1) break;
+
+            // Groups whose searches all ran out are cut off
+            List<Integer> exhausted = new ArrayList<>();
+            for (int root = 0; root < searchCount; root++) {
+                if (group[root] != root || closed[root]) continue;
+                boolean empty = true;
+                for (int i = 0; i < searchCount && empty; i++) {
+                    empty = findSearchGroup(group, i) != root || frontier[i].isEmpty();
+                }
+                if (empty) {
+                    exhausted.add(root);
+                }
+            }
+            if (exhausted.size() == openGroups) {
+                // Everything ran out in the same round - the largest part stays
+                int largest = exhausted.get(0);
+                for (int root : exhausted) {
+                    if (countSearchGroup(group, visited, root) > countSearchGroup(group, visited, largest)) {
+                        largest = root;
+                    }
+                }
+                exhausted.remove(Integer.valueOf(largest));
+            }
+            for (int root : exhausted) {
+                closed[root] = true;
+                openGroups--;
+                LongSet part = new LongOpenHashSet(countSearchGroup(group, visited, root));
+                for (int i = 0; i < searchCount; i++) {
+                    if (findSearchGroup(group, i) != root) continue;
+                    for (int j = 0; j < visited[i].size(); j++) {
+                        part.add(visited[i].getLong(j));
+                    }
+                }
+                parts.add(part);
             }
         }
-    }
 
-    private Set<String> findAdjacentMultiblocks(BlockPos pos) {
-        if (level.isClientSide) return Collections.emptySet();
-        Set<String> multiblocks = new HashSet<>();
-        for (Direction dir : Direction.values()) {
-            BlockPos neighborPos = pos.relative(dir);
-            if (canConnect(pos, neighborPos, level)) {
-                String multiblockId = blockToMultiblock.get(neighborPos);
-                if (multiblockId != null && isValidBlock(neighborPos)) {
-                    multiblocks.add(multiblockId);
+        // A group of several searches grows faster than a single one, so a part that closed early can still
+        // be larger than the one left open; then that one is split off instead
+        if (!parts.isEmpty()) {
+            LongSet largest = parts.get(0);
+            int splitOffCount = 0;
+            for (LongSet part : parts) {
+                splitOffCount += part.size();
+                if (part.size() > largest.size()) largest = part;
+            }
+            if (largest.size() > blocks.size() - splitOffCount) {
+                LongSet remaining = new LongOpenHashSet(blocks.size() - splitOffCount);
+                LongIterator iterator = blocks.iterator();
+                while (iterator.hasNext()) {
+                    long pos = iterator.nextLong();
+                    boolean splitOff = false;
+                    for (LongSet part : parts) {
+                        if (part.contains(pos)) {
+                            splitOff = true;
+                            break;
+                        }
+                    }
+                    if (!splitOff) remaining.add(pos);
                 }
+                parts.set(parts.indexOf(largest), remaining);
             }
         }
-        return multiblocks;
+        return parts;
     }
 
-    private boolean canConnect(BlockPos pos1, BlockPos pos2, Level level) {
-        BlockState state1 = level.getBlockState(pos1);
-        BlockState state2 = level.getBlockState(pos2);
+    private static int findSearchGroup(int[] group, int search) {
+        while (group[search] != search) {
+            search = group[search];
+        }
+        return search;
+    }
+
+    private static int countSearchGroup(int[] group, LongArrayList[] visited, int root) {
+        int count = 0;
+        for (int i = 0; i < group.length; i++) {
+            if (findSearchGroup(group, i) == root) {
+                count += visited[i].size();
+            }
+        }
+        return count;
+    }
+
+    private boolean canConnect(BlockState state1, long pos1, BlockState state2, long pos2) {
         if (!(state1.getBlock() instanceof ShipItemTransportBlock) ||
                 !(state2.getBlock() instanceof ShipItemTransportBlock)) {
             return false;
@@ -1315,57 +2450,25 @@ public class MultiblockManager {
         return areOnSamePlane(pos1, pos2, facing1);
     }
 
-    private boolean areOnSamePlane(BlockPos pos1, BlockPos pos2, Direction facing) {
+    private boolean areOnSamePlane(long pos1, long pos2, Direction facing) {
         switch (facing) {
             case UP:
             case DOWN:
-                return pos1.getY() == pos2.getY();
+                return BlockPos.getY(pos1) == BlockPos.getY(pos2);
             case NORTH:
             case SOUTH:
-                return pos1.getZ() == pos2.getZ();
+                return BlockPos.getZ(pos1) == BlockPos.getZ(pos2);
             case EAST:
             case WEST:
-                return pos1.getX() == pos2.getX();
+                return BlockPos.getX(pos1) == BlockPos.getX(pos2);
             default:
                 return false;
         }
     }
 
-    private List<Set<BlockPos>> findConnectedComponents(Set<BlockPos> blocks) {
-        List<Set<BlockPos>> components = new ArrayList<>();
-        Set<BlockPos> visited = new HashSet<>();
-        for (BlockPos start : blocks) {
-            if (!visited.contains(start)) {
-                Set<BlockPos> component = new HashSet<>();
-                floodFill(start, blocks, component, visited);
-                components.add(component);
-            }
-        }
-        return components;
-    }
-
-    private void floodFill(BlockPos start, Set<BlockPos> allBlocks, Set<BlockPos> component, Set<BlockPos> visited) {
-        Stack<BlockPos> stack = new Stack<>();
-        stack.push(start);
-        while (!stack.isEmpty()) {
-            BlockPos current = stack.pop();
-            if (visited.contains(current)) continue;
-            visited.add(current);
-            component.add(current);
-            for (Direction dir : Direction.values()) {
-                BlockPos neighbor = current.relative(dir);
-                if (allBlocks.contains(neighbor) &&
-                        !visited.contains(neighbor) &&
-                        canConnect(current, neighbor, level)) {
-                    stack.push(neighbor);
-                }
-            }
-        }
-    }
-
-    private void updateBlockEntity(BlockPos pos, String multiblockId, Set<BlockPos> blocks) {
+    private void updateBlockEntity(BlockPos pos, int multiblockId, int blockCount) {
         if (level.getBlockEntity(pos) instanceof ShipItemTransportBlockEntity blockEntity) {
-            blockEntity.setMultiblock(multiblockId, blocks);
+            blockEntity.setMultiblock(multiblockId, blockCount);
             blockEntity.setChanged();
             if (level instanceof ServerLevel) {
                 level.sendBlockUpdated(pos, level.getBlockState(pos), level.getBlockState(pos), 3);
@@ -1380,15 +2483,15 @@ public class MultiblockManager {
     }
 
     // Network sync methods
-    private void sendBlockCountSyncToAllMergedViewers(Set<String> mergedMultiblockIds, String newMultiblockId, int newBlockCount) {
+    private void sendBlockCountSyncToAllMergedViewers(IntSet mergedMultiblockIds, int newMultiblockId, int newBlockCount) {
         if (level instanceof ServerLevel serverLevel) {
             BlockCountSyncPacket syncPacket = new BlockCountSyncPacket(newBlockCount);
             for (ServerPlayer serverPlayer : serverLevel.players()) {
                 if (serverPlayer.containerMenu instanceof ShipItemTransportMenu menu &&
                         menu.getBlockEntity() != null) {
-                    String viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
+                    int viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
                     if (mergedMultiblockIds.contains(viewedMultiblockId) ||
-                            newMultiblockId.equals(viewedMultiblockId)) {
+                            newMultiblockId == viewedMultiblockId) {
                         NetworkHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> serverPlayer), syncPacket);
                     }
                 }
@@ -1409,14 +2512,14 @@ public class MultiblockManager {
         }
     }
 
-    private void sendBlockCountSync(String multiblockId, int blockCount) {
+    private void sendBlockCountSync(int multiblockId, int blockCount) {
         if (level instanceof ServerLevel serverLevel) {
             BlockCountSyncPacket syncPacket = new BlockCountSyncPacket(blockCount);
             for (ServerPlayer serverPlayer : serverLevel.players()) {
                 if (serverPlayer.containerMenu instanceof ShipItemTransportMenu menu &&
                         menu.getBlockEntity() != null) {
-                    String viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
-                    if (multiblockId.equals(viewedMultiblockId)) {
+                    int viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
+                    if (multiblockId == viewedMultiblockId) {
                         NetworkHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> serverPlayer), syncPacket);
                     }
                 }
@@ -1424,14 +2527,14 @@ public class MultiblockManager {
         }
     }
 
-    private void sendChestCountSync(String multiblockId, int chestCount) {
+    private void sendChestCountSync(int multiblockId, int chestCount) {
         if (level instanceof ServerLevel serverLevel) {
             ChestCountSyncPacket syncPacket = new ChestCountSyncPacket(chestCount);
             for (ServerPlayer serverPlayer : serverLevel.players()) {
                 if (serverPlayer.containerMenu instanceof ShipItemTransportMenu menu &&
                         menu.getBlockEntity() != null) {
-                    String viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
-                    if (multiblockId.equals(viewedMultiblockId)) {
+                    int viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
+                    if (multiblockId == viewedMultiblockId) {
                         NetworkHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> serverPlayer), syncPacket);
                     }
                 }
@@ -1439,14 +2542,14 @@ public class MultiblockManager {
         }
     }
 
-    private void sendShipInfoSync(String multiblockId, boolean isOnShip, long shipId) {
+    private void sendShipInfoSync(int multiblockId, boolean isOnShip, long shipId) {
         if (level instanceof ServerLevel serverLevel) {
             ShipInfoSyncPacket syncPacket = new ShipInfoSyncPacket(isOnShip, shipId);
             for (ServerPlayer serverPlayer : serverLevel.players()) {
                 if (serverPlayer.containerMenu instanceof ShipItemTransportMenu menu &&
                         menu.getBlockEntity() != null) {
-                    String viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
-                    if (multiblockId.equals(viewedMultiblockId)) {
+                    int viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
+                    if (multiblockId == viewedMultiblockId) {
                         NetworkHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> serverPlayer), syncPacket);
                     }
                 }
@@ -1454,7 +2557,7 @@ public class MultiblockManager {
         }
     }
 
-    public void sendInitialShipInfoSync(ServerPlayer player, String multiblockId) {
+    public void sendInitialShipInfoSync(ServerPlayer player, int multiblockId) {
         if (level.isClientSide) return;
         MultiblockData data = multiblocks.get(multiblockId);
         if (data != null) {
@@ -1464,15 +2567,13 @@ public class MultiblockManager {
         }
     }
 
-    private String createMultiblock(Set<BlockPos> blocks, boolean importMode, boolean isOnShip, Long shipId) {
-        if (level.isClientSide) return null;
-        String id = UUID.randomUUID().toString();
-        multiblocks.put(id, new MultiblockData(id, new HashSet<>(blocks), isOnShip, shipId));
-        multiblockModes.put(id, importMode);
-        multiblockChests.put(id, new HashSet<>());
-        for (BlockPos pos : blocks) {
-            blockToMultiblock.put(pos, id);
-        }
+    // Takes ownership of the block set
+    private int createMultiblock(LongSet blocks, boolean importMode, boolean isOnShip, Long shipId) {
+        if (level.isClientSide) return NO_MULTIBLOCK;
+        int id = allocateHandle();
+        multiblocks.put(id, new MultiblockData(id, blocks, isOnShip, shipId, importMode));
+        markTransferDataDirty(id);
+        indexBlocks(blocks, id);
 
         Logger.sendMessage("Created new multiblock " + id + " with " + blocks.size() + " blocks (on ship: " + isOnShip + ", shipId: " + shipId + ")", false);
         return id;
@@ -1505,19 +2606,19 @@ public class MultiblockManager {
     }
 
     // Public methods to access ship status
-    public boolean isMultiblockOnShip(String multiblockId) {
+    public boolean isMultiblockOnShip(int multiblockId) {
         if (level.isClientSide) return false;
         MultiblockData data = multiblocks.get(multiblockId);
         return data != null && data.isOnShip;
     }
 
-    public Long getMultiblockShipId(String multiblockId) {
+    public Long getMultiblockShipId(int multiblockId) {
         if (level.isClientSide) return null;
         MultiblockData data = multiblocks.get(multiblockId);
         return data.shipId != null ? data.shipId : -1;
     }
 
-    public String getMultiblockShipInfo(String multiblockId) {
+    public String getMultiblockShipInfo(int multiblockId) {
         if (level.isClientSide) return "Ground";
         MultiblockData data = multiblocks.get(multiblockId);
         if (data == null || !data.isOnShip || data.shipId == null) {
@@ -0,0 +1,95 @@
+package shipItemTransport.code;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+// Multiblock registry of one dimension, saved with the world: multiblocks with their handle, mode, ship,
+// blocks and chests, the chest groups, the next free handle and the handles given to string ids from
+// before handles existed. The manager reads it in one step when it is created, so
+// block entities only confirm they are still there instead of rebuilding their multiblock block by block.
+// Position lists are stored as byte arrays of sorted, delta-encoded packed positions.
+public class MultiblockSavedData extends SavedData {
+    private static final String NAME = "ship_item_transport_multiblocks";
+    public static final int VERSION = 1;
+
+    private CompoundTag loaded; // registry read from disk, until a manager takes it
+    private MultiblockManager manager;
+
+    private MultiblockSavedData(CompoundTag loaded) {
+        this.loaded = loaded;
+    }
+
+    // Registry of the dimension, handed to the manager that owns it from now on
+    public static MultiblockSavedData attach(ServerLevel level, MultiblockManager manager) {
+        MultiblockSavedData data = level.getDataStorage().computeIfAbsent(
+                MultiblockSavedData::new, () -> new MultiblockSavedData(null), NAME);
+        data.manager = manager;
+        if (data.loaded != null) {
+            if (data.loaded.getInt("Version") == VERSION) {
+                manager.readRegistry(data.loaded);
+            } else {
+                Logger.sendMessage("Ignoring multiblock registry with unknown version " + data.loaded.getInt("Version"), false);
+            }
+            data.loaded = null;
+        }
+        return data;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        if (manager == null) return tag;
+        return manager.writeRegistry(tag);
+    }
+
+    // Sorted positions as a count and the gaps between them, each an unsigned varint. In BlockPos.asLong order
+    // a step along Y is 1 (one byte), along Z 2^12 (two bytes) and along X 2^38 (six bytes). Within a row of a
+    // plane the gaps take one or two bytes; planes facing Y or Z also pay six bytes each time X changes.
+    public static byte[] encodePositions(long[] positions) {
+        long[] sorted = positions.clone();
+        Arrays.sort(sorted);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.length * 2 + 10);
+        writeVarLong(out, sorted.length);
+        long previous = 0;
+        for (long pos : sorted) {
+            writeVarLong(out, pos - previous);
+            previous = pos;
+        }
+        return out.toByteArray();
+    }
+
+    public static long[] decodePositions(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return new long[0];
+        int[] offset = {0};
+        long[] positions = new long[(int) readVarLong(bytes, offset)];
+        long previous = 0;
+        for (int i = 0; i < positions.length; i++) {
+            previous += readVarLong(bytes, offset);
+            positions[i] = previous;
+        }
+        return positions;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] offset) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[offset[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
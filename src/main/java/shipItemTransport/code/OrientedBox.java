@@ -0,0 +1,159 @@
+package shipItemTransport.code;
+
+import net.minecraft.core.Direction;
+import net.minecraft.world.phys.AABB;
+import org.joml.Vector3d;
+
+// World-space oriented bounding box of a multiblock, calculated once per cycle.
+// Stores the center, the 3 unit axes and the half extents along them,
+// so pair checks only need the fixed-cost separating axis test below.
+public class OrientedBox {
+    // Face-axis overlap smaller than this counts as just touching (matches AABB.intersects)
+    private static final double TOUCH_EPSILON = 1.0E-6;
+    // Guards the edge-edge axes against near-parallel edges
+    private static final double PARALLEL_EPSILON = 1.0E-9;
+
+    public final double centerX, centerY, centerZ;
+    // Unit axes, axis i is (axes[i * 3], axes[i * 3 + 1], axes[i * 3 + 2])
+    private final double[] axes;
+    private final double[] halfExtents;
+
+    private OrientedBox(double centerX, double centerY, double centerZ, double[] axes, double[] halfExtents) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.axes = axes;
+        this.halfExtents = halfExtents;
+    }
+
+    // Box that is already in world coordinates (ground multiblocks)
+    public static OrientedBox fromWorldBox(AABB box) {
+        return new OrientedBox(
+                (box.minX + box.maxX) / 2, (box.minY + box.maxY) / 2, (box.minZ + box.maxZ) / 2,
+                new double[]{1, 0, 0, 0, 1, 0, 0, 0, 1},
+                new double[]{box.getXsize() / 2, box.getYsize() / 2, box.getZsize() / 2}
+        );
+    }
+
+    // Box in ship-local coordinates, transformed by the ship pose (ship multiblocks)
+    public static OrientedBox fromShipBox(AABB localBox, ShipTransformSnapshot.ShipPose pose) {
+        Vector3d center = new Vector3d(
+                (localBox.minX + localBox.maxX) / 2,
+                (localBox.minY + localBox.maxY) / 2,
+                (localBox.minZ + localBox.maxZ) / 2);
+        pose.transformPosition(center);
+
+        double[] localHalfExtents = {localBox.getXsize() / 2, localBox.getYsize() / 2, localBox.getZsize() / 2};
+        double[] axes = new double[9];
+        double[] halfExtents = new double[3];
+        Vector3d axis = new Vector3d();
+        for (int i = 0; i < 3; i++) {
+            axis.set(i == 0 ? 1 : 0, i == 1 ? 1 : 0, i == 2 ? 1 : 0);
+            pose.transformDirection(axis);
+            // The axis length is the ship scale along it
+            double length = axis.length();
+            halfExtents[i] = localHalfExtents[i] * length;
+            if (length > 0) {
+                axis.div(length);
+            }
+            axes[i * 3] = axis.x;
+            axes[i * 3 + 1] = axis.y;
+            axes[i * 3 + 2] = axis.z;
+        }
+
+        return new OrientedBox(center.x, center.y, center.z, axes, halfExtents);
+    }
+
+    // Same box grown by the given amount on every side
+    public OrientedBox inflate(double amount) {
+        return new OrientedBox(centerX, centerY, centerZ, axes,
+                new double[]{halfExtents[0] + amount, halfExtents[1] + amount, halfExtents[2] + amount});
+    }
+
+    // Lowest coordinate of the box along a world axis
+    public double minAlong(Direction.Axis worldAxis) {
+        return centerAlong(worldAxis) - radiusAlong(worldAxis);
+    }
+
+    // Highest coordinate of the box along a world axis
+    public double maxAlong(Direction.Axis worldAxis) {
+        return centerAlong(worldAxis) + radiusAlong(worldAxis);
+    }
+
+    private double centerAlong(Direction.Axis worldAxis) {
+        return worldAxis.choose(centerX, centerY, centerZ);
+    }
+
+    private double radiusAlong(Direction.Axis worldAxis) {
+        int k = worldAxis.ordinal();
+        return Math.abs(axes[k]) * halfExtents[0] +
+                Math.abs(axes[3 + k]) * halfExtents[1] +
+                Math.abs(axes[6 + k]) * halfExtents[2];
+    }
+
+    // Smallest world-aligned box containing this box
+    public AABB getWorldBounds() {
+        return new AABB(
+                minAlong(Direction.Axis.X), minAlong(Direction.Axis.Y), minAlong(Direction.Axis.Z),
+                maxAlong(Direction.Axis.X), maxAlong(Direction.Axis.Y), maxAlong(Direction.Axis.Z));
+    }
+
+    private double dotAxes(int i, OrientedBox other, int j) {
+        return axes[i * 3] * other.axes[j * 3] +
+                axes[i * 3 + 1] * other.axes[j * 3 + 1] +
+                axes[i * 3 + 2] * other.axes[j * 3 + 2];
+    }
+
+    // Separating axis test over the 3 + 3 face axes and the 9 edge-edge axes.
+    // Works on primitives only, so a pair check never allocates.
+    public boolean intersects(OrientedBox other) {
+        double[] a = halfExtents;
+        double[] b = other.halfExtents;
+
+        // Rotation expressing the other box in this box's frame
+        double r00 = dotAxes(0, other, 0), r01 = dotAxes(0, other, 1), r02 = dotAxes(0, other, 2);
+        double r10 = dotAxes(1, other, 0), r11 = dotAxes(1, other, 1), r12 = dotAxes(1, other, 2);
+        double r20 = dotAxes(2, other, 0), r21 = dotAxes(2, other, 1), r22 = dotAxes(2, other, 2);
+
+        double ar00 = Math.abs(r00) + PARALLEL_EPSILON, ar01 = Math.abs(r01) + PARALLEL_EPSILON, ar02 = Math.abs(r02) + PARALLEL_EPSILON;
+        double ar10 = Math.abs(r10) + PARALLEL_EPSILON, ar11 = Math.abs(r11) + PARALLEL_EPSILON, ar12 = Math.abs(r12) + PARALLEL_EPSILON;
+        double ar20 = Math.abs(r20) + PARALLEL_EPSILON, ar21 = Math.abs(r21) + PARALLEL_EPSILON, ar22 = Math.abs(r22) + PARALLEL_EPSILON;
+
+        // Translation between the centers, in this box's frame
+        double dx = other.centerX - centerX;
+        double dy = other.centerY - centerY;
+        double dz = other.centerZ - centerZ;
+        double t0 = dx * axes[0] + dy * axes[1] + dz * axes[2];
+        double t1 = dx * axes[3] + dy * axes[4] + dz * axes[5];
+        double t2 = dx * axes[6] + dy * axes[7] + dz * axes[8];
+
+        // This box's face axes
+        if (Math.abs(t0) >= a[0] + b[0] * ar00 + b[1] * ar01 + b[2] * ar02 - TOUCH_EPSILON) return false;
+        if (Math.abs(t1) >= a[1] + b[0] * ar10 + b[1] * ar11 + b[2] * ar12 - TOUCH_EPSILON) return false;
+        if (Math.abs(t2) >= a[2] + b[0] * ar20 + b[1] * ar21 + b[2] * ar22 - TOUCH_EPSILON) return false;
+
+        // Other box's face axes
+        if (Math.abs(t0 * r00 + t1 * r10 + t2 * r20) >= a[0] * ar00 + a[1] * ar10 + a[2] * ar20 + b[0] - TOUCH_EPSILON) return false;
+        if (Math.abs(t0 * r01 + t1 * r11 + t2 * r21) >= a[0] * ar01 + a[1] * ar11 + a[2] * ar21 + b[1] - TOUCH_EPSILON) return false;
+        if (Math.abs(t0 * r02 + t1 * r12 + t2 * r22) >= a[0] * ar02 + a[1] * ar12 + a[2] * ar22 + b[2] - TOUCH_EPSILON) return false;
+
+        // Edge-edge axes (A_i x B_j)
+        if (Math.abs(t2 * r10 - t1 * r20) > a[1] * ar20 + a[2] * ar10 + b[1] * ar02 + b[2] * ar01) return false;
+        if (Math.abs(t2 * r11 - t1 * r21) > a[1] * ar21 + a[2] * ar11 + b[0] * ar02 + b[2] * ar00) return false;
+        if (Math.abs(t2 * r12 - t1 * r22) > a[1] * ar22 + a[2] * ar12 + b[0] * ar01 + b[1] * ar00) return false;
+        if (Math.abs(t0 * r20 - t2 * r00) > a[0] * ar20 + a[2] * ar00 + b[1] * ar12 + b[2] * ar11) return false;
+        if (Math.abs(t0 * r21 - t2 * r01) > a[0] * ar21 + a[2] * ar01 + b[0] * ar12 + b[2] * ar10) return false;
+        if (Math.abs(t0 * r22 - t2 * r02) > a[0] * ar22 + a[2] * ar02 + b[0] * ar11 + b[1] * ar10) return false;
+        if (Math.abs(t1 * r00 - t0 * r10) > a[0] * ar10 + a[1] * ar00 + b[1] * ar22 + b[2] * ar21) return false;
+        if (Math.abs(t1 * r01 - t0 * r11) > a[0] * ar11 + a[1] * ar01 + b[0] * ar22 + b[2] * ar20) return false;
+        if (Math.abs(t1 * r02 - t0 * r12) > a[0] * ar12 + a[1] * ar02 + b[0] * ar21 + b[1] * ar20) return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OBB[center=(%.2f, %.2f, %.2f), halfExtents=(%.2f, %.2f, %.2f)]",
+                centerX, centerY, centerZ, halfExtents[0], halfExtents[1], halfExtents[2]);
+    }
+}
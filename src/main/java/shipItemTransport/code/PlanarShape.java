@@ -0,0 +1,169 @@
+package shipItemTransport.code;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import java.util.function.LongConsumer;
+
+// Blocks of a multiblock as the flat plane they form: the axis of the facing, the block coordinate along it
+// and a bitmap of occupied cells over the bounding rectangle. Cells are addressed by (u, v), the two block
+// coordinates inside the plane. Only the alignment check uses it, where the overlap with another shape is a
+// word-wise AND. It is a view of the registry's block set, which keeps membership, adjacency and bounds.
+// Built from the block set and never changed afterwards, so planner threads can read it.
+public class PlanarShape {
+    private final Direction.Axis axis;
+    private final int plane; // block coordinate along the axis
+    private final int minU, minV; // first cell of the bounding rectangle
+    private final int width, height; // bounding rectangle in cells
+    private final int wordsPerRow;
+    private final long[] bits; // row-major, bit (u - minU) of row (v - minV)
+    private final int blockCount;
+
+    private PlanarShape(Direction.Axis axis, int plane, int minU, int minV, int width, int height, long[] bits, int blockCount) {
+        this.axis = axis;
+        this.plane = plane;
+        this.minU = minU;
+        this.minV = minV;
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = wordsPerRow(width);
+        this.bits = bits;
+        this.blockCount = blockCount;
+    }
+
+    private static int wordsPerRow(int width) {
+        return (width + 63) >>> 6;
+    }
+
+    // Shape of the given packed positions on the plane perpendicular to the axis. The plane is the one of
+    // the first block; blocks off that plane are not part of the shape.
+    public static PlanarShape of(LongSet blocks, Direction.Axis axis) {
+        if (blocks.isEmpty()) {
+            return new PlanarShape(axis, 0, 0, 0, 0, 0, new long[0], 0);
+        }
+
+        int plane = planeOf(blocks.iterator().nextLong(), axis);
+        int minU = Integer.MAX_VALUE, minV = Integer.MAX_VALUE;
+        int maxU = Integer.MIN_VALUE, maxV = Integer.MIN_VALUE;
+        LongIterator iterator = blocks.iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            if (planeOf(pos, axis) != plane) continue;
+            int u = uOf(pos, axis), v = vOf(pos, axis);
+            minU = Math.min(minU, u);
+            minV = Math.min(minV, v);
+            maxU = Math.max(maxU, u);
+            maxV = Math.max(maxV, v);
+        }
+
+        int width = maxU - minU + 1, height = maxV - minV + 1;
+        int rowWords = wordsPerRow(width);
+        long[] bits = new long[rowWords * height];
+        int count = 0;
+        iterator = blocks.iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            if (planeOf(pos, axis) != plane) continue;
+            int u = uOf(pos, axis) - minU, v = vOf(pos, axis) - minV;
+            int word = v * rowWords + (u >>> 6);
+            long bit = 1L << (u & 63);
+            if ((bits[word] & bit) == 0) {
+                bits[word] |= bit;
+                count++;
+            }
+        }
+        return new PlanarShape(axis, plane, minU, minV, width, height, bits, count);
+    }
+
+    // Plane coordinates: Y planes use (x, z), Z planes (x, y) and X planes (z, y)
+    private static int planeOf(long pos, Direction.Axis axis) {
+        switch (axis) {
+            case X: return BlockPos.getX(pos);
+            case Y: return BlockPos.getY(pos);
+            default: return BlockPos.getZ(pos);
+        }
+    }
+
+    private static int uOf(long pos, Direction.Axis axis) {
+        return axis == Direction.Axis.X ? BlockPos.getZ(pos) : BlockPos.getX(pos);
+    }
+
+    private static int vOf(long pos, Direction.Axis axis) {
+        return axis == Direction.Axis.Y ? BlockPos.getZ(pos) : BlockPos.getY(pos);
+    }
+
+    public Direction.Axis getAxis() {
+        return axis;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public boolean isEmpty() {
+        return blockCount == 0;
+    }
+
+    // The same cells moved by whole cells within the plane; shares the bitmap
+    public PlanarShape translated(int du, int dv) {
+        return new PlanarShape(axis, plane, minU + du, minV + dv, width, height, bits, blockCount);
+    }
+
+    // Cells occupied in both shapes, ignoring the plane coordinate: the two shapes seen through a shared face.
+    // Rows are compared 64 cells at a time with AND and popcount.
+    public int countOverlap(PlanarShape other) {
+        if (other.axis != axis || isEmpty() || other.isEmpty()) return 0;
+        int fromU = Math.max(minU, other.minU), toU = Math.min(minU + width, other.minU + other.width);
+        int fromV = Math.max(minV, other.minV), toV = Math.min(minV + height, other.minV + other.height);
+
+        int overlap = 0;
+        for (int v = fromV; v < toV; v++) {
+            for (int u = fromU; u < toU; u += 64) {
+                long mask = toU - u >= 64 ? -1L : (1L << (toU - u)) - 1;
+                overlap += Long.bitCount(rowBits(v, u) & other.rowBits(v, u) & mask);
+            }
+        }
+        return overlap;
+    }
+
+    // 64 cells of row v starting at column u, which must be inside the bounds; cells past the row end are empty
+    private long rowBits(int v, int u) {
+        int row = (v - minV) * wordsPerRow;
+        int offset = u - minU;
+        int word = offset >>> 6, shift = offset & 63;
+        long cells = bits[row + word] >>> shift;
+        if (shift != 0 && word + 1 < wordsPerRow) {
+            cells |= bits[row + word + 1] << (64 - shift);
+        }
+        return cells;
+    }
+
+    // Packed position of every block of the shape, row by row; empty words are skipped whole
+    public void forEachBlock(LongConsumer action) {
+        for (int row = 0; row < height; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                long cells = bits[row * wordsPerRow + word];
+                while (cells != 0) {
+                    int u = minU + (word << 6) + Long.numberOfTrailingZeros(cells);
+                    action.accept(toPos(u, minV + row));
+                    cells &= cells - 1;
+                }
+            }
+        }
+    }
+
+    private long toPos(int u, int v) {
+        switch (axis) {
+            case X: return BlockPos.asLong(plane, v, u);
+            case Y: return BlockPos.asLong(u, plane, v);
+            default: return BlockPos.asLong(u, v, plane);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s=%d %dx%d at (%d, %d), %d blocks", axis, plane, width, height, minU, minV, blockCount);
+    }
+}
@@ -0,0 +1,55 @@
+package shipItemTransport.code;
+
+// Server-wide cap on items moved per tick, shared by the links of every MultiblockManager.
+// The links due this tick are counted on every dimension before any of them runs. Each link then gets at
+// most an even share of what is left among the links still to come, so a few large transfers early in the
+// tick can't starve everyone else, and what one link does not use goes to the links after it.
+public final class ServerTransferBudget {
+    private static int maxItemsPerTick = 0; // 0 = unlimited
+    private static int remaining = 0;
+    private static int expectedRequests = 0; // due links of this tick that have not been dropped
+    private static int requestsThisTick = 0;
+
+    private ServerTransferBudget() {
+    }
+
+    public static void beginTick(int maxItems, int dueLinks) {
+        maxItemsPerTick = Math.max(0, maxItems);
+        remaining = maxItemsPerTick;
+        expectedRequests = dueLinks;
+        requestsThisTick = 0;
+    }
+
+    public static boolean isLimited() {
+        return maxItemsPerTick > 0;
+    }
+
+    // Items a link may move this tick out of the wanted amount; unused items go back through release.
+    // Every due link asks exactly once, or cancels.
+    public static int acquire(int wanted) {
+        requestsThisTick++;
+        if (wanted <= 0) return 0;
+        if (!isLimited()) return wanted;
+
+        int linksLeft = Math.max(1, expectedRequests - requestsThisTick + 1);
+        int fairShare = Math.max(1, (remaining + linksLeft - 1) / linksLeft);
+        int granted = Math.min(wanted, Math.min(remaining, fairShare));
+        remaining -= granted;
+        return granted;
+    }
+
+    // A due link that was dropped before asking, so its share goes to the others
+    public static void cancel() {
+        expectedRequests--;
+    }
+
+    public static void release(int unused) {
+        if (isLimited() && unused > 0) {
+            remaining = Math.min(maxItemsPerTick, remaining + unused);
+        }
+    }
+
+    public static int getRemaining() {
+        return remaining;
+    }
+}
@@ -8,12 +8,12 @@ import net.minecraft.util.RandomSource;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.MenuProvider;
-import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.context.BlockPlaceContext;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelReader;
 import net.minecraft.world.level.block.BaseEntityBlock;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.RenderShape;
@@ -30,7 +30,6 @@ import net.minecraft.world.phys.BlockHitResult;
 import net.minecraftforge.network.NetworkHooks;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -73,18 +72,18 @@ public class ShipItemTransportBlock extends BaseEntityBlock {
 
     }
 
+    // Every placement comes through here - players, /setblock, structure templates, schematic tools and
+    // VS assembly - while setPlacedBy only sees players
     @Override
-    public void setPlacedBy(Level level, BlockPos pos, BlockState state, @Nullable LivingEntity placer, ItemStack stack) {
-        super.setPlacedBy(level, pos, state, placer, stack);
-        Logger.sendMessage("Block placed at " + pos + " - processing immediately 1", true);
-        if (!level.isClientSide && level.isLoaded(pos)) {
-            Logger.sendMessage("Block placed at " + pos + " - processing immediately 2", true);
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean isMoving) {
+        super.onPlace(state, level, pos, oldState, isMoving);
+        // Only a new block; our own state changes (FORMED) land here too and must not queue again
+        if (!level.isClientSide && !oldState.is(state.getBlock())) {
+            Logger.sendMessage("Block placed at " + pos + " - queued for the end of the tick", true);
             MultiblockManager manager = MultiblockManager.get(level);
             if (manager != null) {
+                // Joins a multiblock and scans for chests together with the other placements of this tick
                 manager.onBlockPlaced(pos);
-
-                // Scan for existing chests near this block
-                scanForNearbyChests(level, pos, manager);
             }
         }
     }
@@ -121,26 +120,19 @@ public class ShipItemTransportBlock extends BaseEntityBlock {
         }
     }
 
-    private void scanForNearbyChests(Level level, BlockPos blockPos, MultiblockManager manager) {
-        for (Direction dir : getValidConnectionDirections(level, blockPos)) {
-            BlockPos checkPos = blockPos.relative(dir);
-            if (ChestHelper.isChest(level, checkPos)) {
-                Logger.sendMessage("Found existing chest at " + checkPos + " during block placement", false);
-                manager.handleChestNearMultiblock(checkPos, blockPos);
+    // Called when a neighboring block entity changes, e.g. a chest whose contents changed
+    @Override
+    public void onNeighborChange(BlockState state, LevelReader level, BlockPos pos, BlockPos neighbor) {
+        super.onNeighborChange(state, level, pos, neighbor);
+
+        if (level instanceof Level serverLevel && !serverLevel.isClientSide) {
+            MultiblockManager manager = MultiblockManager.get(serverLevel);
+            if (manager != null) {
+                manager.onChestContentsChanged(neighbor);
             }
         }
     }
 
-    private Direction[] getValidConnectionDirections(Level level, BlockPos pos) {
-        BlockState state = level.getBlockState(pos);
-        Direction facing = state.getValue(FACING);
-
-        // All directions except the facing direction
-        return Arrays.stream(Direction.values())
-                .filter(dir -> dir != facing)
-                .toArray(Direction[]::new);
-    }
-
     // Updated use method to use the new openMenu approach
     @Override
     public InteractionResult use(BlockState state, Level level, BlockPos pos, Player player, InteractionHand hand, BlockHitResult hit) {
@@ -1,7 +1,6 @@
 package shipItemTransport.code;
 
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
@@ -21,14 +20,12 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.network.NetworkHooks;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
-import java.util.Set;
-
 public class ShipItemTransportBlockEntity extends BlockEntity implements MenuProvider {
-    private String multiblockId = null;
+    private int multiblockId = MultiblockManager.NO_MULTIBLOCK; // handle of the multiblock in the level's MultiblockManager
+    private String legacyMultiblockId; // string id saved before handles, until the manager maps it to a handle
 
     boolean needsRegistration = true;
-    private String oldMultiblockId = null;
+    private int oldMultiblockId = MultiblockManager.NO_MULTIBLOCK;
     private boolean importMode = true;
 
     public ShipItemTransportBlockEntity(BlockPos pos, BlockState state) {
@@ -37,7 +34,7 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
 
     public boolean isImportMode() {
         // If part of a multiblock, get mode from manager. Otherwise use local mode.
-        if (multiblockId != null && level != null && !level.isClientSide) {
+        if (multiblockId != MultiblockManager.NO_MULTIBLOCK && level != null && !level.isClientSide) {
             MultiblockManager manager = MultiblockManager.get(level);
             if (manager != null) {
                 return manager.getMultiblockMode(multiblockId);
@@ -50,7 +47,7 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
         setChanged();
     }
 
-    public void setMultiblock(String id, Set<BlockPos> members) {
+    public void setMultiblock(int id, int memberCount) {
         this.multiblockId = id;
 
         setChanged();
@@ -62,17 +59,17 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
 
         if (level != null && !level.isClientSide) {
             BlockState currentState = level.getBlockState(getBlockPos());
-            boolean shouldBeFormed = (id != null && members.size() > 1);
+            boolean shouldBeFormed = (id != MultiblockManager.NO_MULTIBLOCK && memberCount > 1);
 
             if (currentState.getValue(ShipItemTransportBlock.FORMED) != shouldBeFormed) {
                 level.setBlock(getBlockPos(), currentState.setValue(ShipItemTransportBlock.FORMED, shouldBeFormed), 3);
             }
         }
 
-        Logger.sendMessage("Block at " + getBlockPos() + " set to multiblock " + id + " with " + members.size() + " blocks", false);
+        Logger.sendMessage("Block at " + getBlockPos() + " set to multiblock " + id + " with " + memberCount + " blocks", false);
     }
 
-    public String getMultiblockId() {
+    public int getMultiblockId() {
         return multiblockId;
     }
 
@@ -82,10 +79,10 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
 
     public int getMultiblockSize() {
         // Delegate to MultiblockManager
-        if (multiblockId != null && level != null && !level.isClientSide) {
+        if (multiblockId != MultiblockManager.NO_MULTIBLOCK && level != null && !level.isClientSide) {
             MultiblockManager manager = MultiblockManager.get(level);
             if (manager != null) {
-                return manager.getMultiblockBlocks(multiblockId).size();
+                return manager.getMultiblockBlockCount(multiblockId);
             }
         }
         return 1; // Single block if no multiblock or invalid state
@@ -93,7 +90,7 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
 
     public int getChestCount() {
         // Delegate to MultiblockManager
-        if (multiblockId != null && level != null && !level.isClientSide) {
+        if (multiblockId != MultiblockManager.NO_MULTIBLOCK && level != null && !level.isClientSide) {
             MultiblockManager manager = MultiblockManager.get(level);
             if (manager != null) {
                 return manager.getMultiblockChestCount(multiblockId);
@@ -104,21 +101,21 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
 
     // NEW: Get ship connection info
     public boolean isOnShip() {
-        if (level == null || level.isClientSide || multiblockId == null) return false;
+        if (level == null || level.isClientSide || multiblockId == MultiblockManager.NO_MULTIBLOCK) return false;
         MultiblockManager manager = MultiblockManager.get(level);
         return manager != null && manager.isMultiblockOnShip(multiblockId);
     }
 
     // NEW: Get ship connection info for GUI display
     public String getShipConnectionInfo() {
-        if (level == null || level.isClientSide || multiblockId == null) return "Ground";
+        if (level == null || level.isClientSide || multiblockId == MultiblockManager.NO_MULTIBLOCK) return "Ground";
         MultiblockManager manager = MultiblockManager.get(level);
         return manager != null ? manager.getMultiblockShipInfo(multiblockId) : "Ground";
     }
 
     public void toggleMode() {
         // Delegate to MultiblockManager
-        if (multiblockId != null && level != null && !level.isClientSide) {
+        if (multiblockId != MultiblockManager.NO_MULTIBLOCK && level != null && !level.isClientSide) {
             MultiblockManager manager = MultiblockManager.get(level);
             if (manager != null) {
                 manager.toggleMultiblockMode(multiblockId);
@@ -138,8 +135,11 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
         Logger.sendMessage("saving additional data for block entity: multiblock id == "+multiblockId,true);
         super.saveAdditional(tag);
 
-        if (multiblockId != null) {
-            tag.putString("MultiblockId", multiblockId);
+        if (multiblockId != MultiblockManager.NO_MULTIBLOCK) {
+            tag.putInt("Multiblock", multiblockId);
+        } else if (legacyMultiblockId != null) {
+            // Saved before the first tick mapped it to a handle - keep it for the next load
+            tag.putString("MultiblockId", legacyMultiblockId);
         }
 
         // NEW: Save import mode
@@ -158,12 +158,11 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
             importMode = tag.getBoolean("ImportMode");
         }
 
-        if (tag.contains("MultiblockId")) {
-            multiblockId = tag.getString("MultiblockId");
-
-
-
-            Logger.sendMessage("Loaded block at " + getBlockPos() + " belonging to multiblock " + multiblockId + " with mode: " + (importMode ? "IMPORT" : "EXPORT"), true);
+        if (tag.contains("Multiblock")) {
+            multiblockId = tag.getInt("Multiblock");
+        } else if (tag.contains("MultiblockId")) {
+            // Saved before multiblocks had int handles - mapped once the block registers and the level is known
+            legacyMultiblockId = tag.getString("MultiblockId");
         }
     }
 
@@ -178,68 +177,37 @@ public class ShipItemTransportBlockEntity extends BlockEntity implements MenuPro
         // Your existing tick logic can go here too
     }
 
+    // Registers now for a queued placement that comes before the first tick. True if the block carried a
+    // saved handle, e.g. copied onto a ship by VS assembly, and was queued to rejoin that multiblock
+    boolean registerCopiedBlock() {
+        if (!needsRegistration) return false;
+        needsRegistration = false;
+        registerWithMultiblock();
+        return multiblockId != MultiblockManager.NO_MULTIBLOCK;
+    }
+
     // NEW: Self-registration method
     private void registerWithMultiblock() {
-        while (level == null) {
-            try {
-                Thread.sleep(300);
-                Logger.sendMessage("Waiting for block entity Level to load", true);
-            }catch (InterruptedException e) {
-                    Logger.sendMessage("Interrupted while sleeping block entity", true);
-                }
-        }
-        if(level.isClientSide() ==true ) return;
+        if (level == null || level.isClientSide()) return;
         MultiblockManager manager = MultiblockManager.get(level);
         if (manager == null) return;
-
-        Logger.sendMessage("Block at " + getBlockPos() + " registering with multiblock " + multiblockId, false);
-
-        // Check if multiblock exists
-        Set<BlockPos> existingBlocks = manager.getMultiblockBlocks(multiblockId);
-
-        if (existingBlocks.isEmpty()) {
-            // Multiblock doesn't exist - create it with just this block
-            Set<BlockPos> newBlocks = new HashSet<>();
-            newBlocks.add(getBlockPos());
-            manager.recreateMultiblock(newBlocks, importMode,multiblockId);
-
-            Logger.sendMessage("Created new multiblock " + multiblockId + " with block at " + getBlockPos(), false);
-        } else {
-            // Multiblock exists - add this block to it
-            Set<BlockPos> updatedBlocks = new HashSet<>(existingBlocks);
-            updatedBlocks.add(getBlockPos());
-            manager.updateMultiblock(multiblockId, updatedBlocks);
-
-            Logger.sendMessage("Added block at " + getBlockPos() + " to existing multiblock " + multiblockId, false);
+        if (legacyMultiblockId != null) {
+            multiblockId = manager.remapLegacyHandle(legacyMultiblockId);
+            legacyMultiblockId = null;
+            setChanged();
         }
+        // Newly placed blocks have no saved multiblock - the manager's placement queue registers them
+        if (multiblockId == MultiblockManager.NO_MULTIBLOCK) return;
 
-        // Update this block entity with current multiblock data
-        Set<BlockPos> currentMembers = manager.getMultiblockBlocks(multiblockId);
-        setMultiblock(multiblockId, currentMembers);
-
-        // Scan for chests (existing behavior)
-        scanForChests();
-    }
-
-    // NEW: Chest scanning after registration
-    private void scanForChests() {
-        if (level == null || level.isClientSide || multiblockId == null) return;
-
-        MultiblockManager manager = MultiblockManager.get(level);
-        if (manager == null) return;
-
-        // Use existing chest scanning logic from MultiblockManager
-        for (Direction dir : ChestHelper.getValidConnectionDirections(level, getBlockPos())) {
-            BlockPos checkPos = getBlockPos().relative(dir);
-            if (ChestHelper.isChest(level, checkPos)) {
-                manager.handleChestNearMultiblock(checkPos, getBlockPos());
-            }
-        }
+        // Rebuilt together with the other loaded blocks of the multiblock at the end of the tick,
+        // which also scans for chests
+        Logger.sendMessage("Block at " + getBlockPos() + " registering with multiblock " + multiblockId, true);
+        manager.queueRehydration(multiblockId, getBlockPos(), importMode);
     }
 
     @Override
     public void setRemoved() {
-        if (level != null && !level.isClientSide && multiblockId != null) {
+        if (level != null && !level.isClientSide && multiblockId != MultiblockManager.NO_MULTIBLOCK) {
             if (level.isLoaded(worldPosition) &&
                     !level.getBlockState(worldPosition).is(getBlockState().getBlock())) {
 
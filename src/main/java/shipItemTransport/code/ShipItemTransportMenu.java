@@ -121,7 +121,7 @@ public class ShipItemTransportMenu extends AbstractContainerMenu {
         else  {
             Logger.sendMessage("in method toggling mode on server",true);
         }
-        if (blockEntity != null && blockEntity.getMultiblockId() != null && blockEntity.getLevel() != null) {
+        if (blockEntity != null && blockEntity.getMultiblockId() != MultiblockManager.NO_MULTIBLOCK && blockEntity.getLevel() != null) {
             MultiblockManager manager = MultiblockManager.get(blockEntity.getLevel());
 
             if (manager != null) {
@@ -0,0 +1,90 @@
+package shipItemTransport.code;
+
+import net.minecraft.world.level.Level;
+import org.joml.Matrix4d;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.valkyrienskies.core.api.ships.Ship;
+import org.valkyrienskies.core.apigame.world.ShipWorldCore;
+import org.valkyrienskies.mod.common.VSGameUtilsKt;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Ship poses captured once at the start of a transfer cycle.
+// Every geometry calculation in the cycle reads from here, so VS is queried once per ship
+// and all pair checks see the same pose even if the ship moves mid-cycle.
+public class ShipTransformSnapshot {
+    private final Map<Long, ShipPose> poses = new HashMap<>();
+
+    public static class ShipPose {
+        public final long shipId;
+        public final Matrix4d shipToWorld;
+        public final Quaterniond rotation;
+        public final Vector3d position;
+
+        public ShipPose(long shipId, Matrix4d shipToWorld, Quaterniond rotation, Vector3d position) {
+            this.shipId = shipId;
+            this.shipToWorld = shipToWorld;
+            this.rotation = rotation;
+            this.position = position;
+        }
+
+        public Vector3d transformPosition(Vector3d localPosition) {
+            return shipToWorld.transformPosition(localPosition);
+        }
+
+        public Vector3d transformDirection(Vector3d localDirection) {
+            return shipToWorld.transformDirection(localDirection);
+        }
+    }
+
+    public static ShipTransformSnapshot capture(Level level, Collection<Long> shipIds) {
+        ShipTransformSnapshot snapshot = new ShipTransformSnapshot();
+        if (level == null || level.isClientSide || shipIds.isEmpty()) return snapshot;
+
+        ShipWorldCore shipWorld = VSGameUtilsKt.getShipObjectWorld(level);
+        if (shipWorld == null) return snapshot;
+
+        for (Long shipId : shipIds) {
+            if (shipId == null || snapshot.poses.containsKey(shipId)) continue;
+
+            Ship ship = shipWorld.getAllShips().getById(shipId);
+            if (ship == null) continue;
+
+            var transform = ship.getTransform();
+
+            snapshot.poses.put(shipId, new ShipPose(
+                    shipId,
+                    new Matrix4d(transform.getShipToWorld()),
+                    new Quaterniond(transform.getShipToWorldRotation()),
+                    new Vector3d(transform.getPositionInWorld())
+            ));
+        }
+
+        return snapshot;
+    }
+
+    // True if the second pose is further than the given distance or angle from the first one
+    public static boolean exceedsTolerance(Vector3d position, Quaterniond rotation, Vector3d newPosition, Quaterniond newRotation,
+                                           double positionTolerance, double rotationToleranceDegrees) {
+        if (position.distance(newPosition) > positionTolerance) {
+            return true;
+        }
+
+        // Angle between the two rotations: 2 * acos(|q1 . q2|)
+        double dot = Math.abs(rotation.x * newRotation.x + rotation.y * newRotation.y +
+                rotation.z * newRotation.z + rotation.w * newRotation.w);
+        double angleDegrees = Math.toDegrees(2.0 * Math.acos(Math.min(1.0, dot)));
+        return angleDegrees > rotationToleranceDegrees;
+    }
+
+    public ShipPose get(Long shipId) {
+        return shipId == null ? null : poses.get(shipId);
+    }
+
+    public int size() {
+        return poses.size();
+    }
+}
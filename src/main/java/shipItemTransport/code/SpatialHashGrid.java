@@ -0,0 +1,205 @@
+package shipItemTransport.code;
+
+import net.minecraft.world.phys.AABB;
+
+import java.util.*;
+
+// Uniform grid broadphase used by the transfer cycle.
+// Every entry is inserted into all cells its world box touches, and only entries sharing a cell
+// are handed out as candidate pairs, so the cost follows the number of nearby pairs instead of n^2.
+// Entries can also be replaced or removed one at a time, so a grid can be kept between cycles.
+public class SpatialHashGrid<T> {
+    private final double cellSize;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+
+    public SpatialHashGrid(double cellSize) {
+        this.cellSize = Math.max(1.0, cellSize);
+    }
+
+    // Candidate pair handed to the narrowphase
+    public static class Pair<T> {
+        public final T first;
+        public final T second;
+
+        public Pair(T first, T second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    private static class Entry<T> {
+        final T value;
+        final AABB bounds;
+        final int minCellX, minCellY, minCellZ;
+        final int maxCellX, maxCellY, maxCellZ;
+
+        Entry(T value, AABB bounds, int minCellX, int minCellY, int minCellZ, int maxCellX, int maxCellY, int maxCellZ) {
+            this.value = value;
+            this.bounds = bounds;
+            this.minCellX = minCellX;
+            this.minCellY = minCellY;
+            this.minCellZ = minCellZ;
+            this.maxCellX = maxCellX;
+            this.maxCellY = maxCellY;
+            this.maxCellZ = maxCellZ;
+        }
+    }
+
+    // Adds a value, replacing its previous box if it was already in the grid
+    public void insert(T value, AABB bounds) {
+        remove(value);
+
+        Entry<T> entry = new Entry<>(value, bounds,
+                toCell(bounds.minX), toCell(bounds.minY), toCell(bounds.minZ),
+                toCell(bounds.maxX), toCell(bounds.maxY), toCell(bounds.maxZ));
+        entries.put(value, entry);
+
+        for (int x = entry.minCellX; x <= entry.maxCellX; x++) {
+            for (int y = entry.minCellY; y <= entry.maxCellY; y++) {
+                for (int z = entry.minCellZ; z <= entry.maxCellZ; z++) {
+                    cells.computeIfAbsent(packCell(x, y, z), k -> new ArrayList<>()).add(entry);
+                }
+            }
+        }
+    }
+
+    public boolean remove(T value) {
+        Entry<T> entry = entries.remove(value);
+        if (entry == null) return false;
+
+        for (int x = entry.minCellX; x <= entry.maxCellX; x++) {
+            for (int y = entry.minCellY; y <= entry.maxCellY; y++) {
+                for (int z = entry.minCellZ; z <= entry.maxCellZ; z++) {
+                    long key = packCell(x, y, z);
+                    List<Entry<T>> occupants = cells.get(key);
+                    if (occupants == null) continue;
+                    occupants.remove(entry);
+                    if (occupants.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // Adds every value whose box overlaps the given box to the result, each value once
+    public void query(AABB bounds, Collection<T> result) {
+        int minCellX = toCell(bounds.minX), minCellY = toCell(bounds.minY), minCellZ = toCell(bounds.minZ);
+        int maxCellX = toCell(bounds.maxX), maxCellY = toCell(bounds.maxY), maxCellZ = toCell(bounds.maxZ);
+
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int y = minCellY; y <= maxCellY; y++) {
+                for (int z = minCellZ; z <= maxCellZ; z++) {
+                    List<Entry<T>> occupants = cells.get(packCell(x, y, z));
+                    if (occupants == null) continue;
+
+                    for (Entry<T> entry : occupants) {
+                        // Same rule as findCandidatePairs - only report from the first cell shared with the query box
+                        if (x != Math.max(minCellX, entry.minCellX) ||
+                                y != Math.max(minCellY, entry.minCellY) ||
+                                z != Math.max(minCellZ, entry.minCellZ)) {
+                            continue;
+                        }
+                        if (entry.bounds.intersects(bounds)) {
+                            result.add(entry.value);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // True if any value's box overlaps the given box
+    public boolean intersectsAny(AABB bounds) {
+        int minCellX = toCell(bounds.minX), minCellY = toCell(bounds.minY), minCellZ = toCell(bounds.minZ);
+        int maxCellX = toCell(bounds.maxX), maxCellY = toCell(bounds.maxY), maxCellZ = toCell(bounds.maxZ);
+
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int y = minCellY; y <= maxCellY; y++) {
+                for (int z = minCellZ; z <= maxCellZ; z++) {
+                    List<Entry<T>> occupants = cells.get(packCell(x, y, z));
+                    if (occupants == null) continue;
+
+                    for (Entry<T> entry : occupants) {
+                        if (entry.bounds.intersects(bounds)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        cells.clear();
+        entries.clear();
+    }
+
+    // Returns every pair of entries that share at least one cell and whose boxes overlap.
+    // Each pair is reported exactly once: only from the lowest cell both entries have in common.
+    public List<Pair<T>> findCandidatePairs() {
+        List<Pair<T>> pairs = new ArrayList<>();
+
+        for (Map.Entry<Long, List<Entry<T>>> cell : cells.entrySet()) {
+            List<Entry<T>> occupants = cell.getValue();
+            if (occupants.size() < 2) continue;
+
+            long key = cell.getKey();
+            int cellX = unpackX(key);
+            int cellY = unpackY(key);
+            int cellZ = unpackZ(key);
+
+            for (int i = 0; i < occupants.size(); i++) {
+                Entry<T> a = occupants.get(i);
+                for (int j = i + 1; j < occupants.size(); j++) {
+                    Entry<T> b = occupants.get(j);
+
+                    // Skip if this is not the first shared cell of the pair
+                    if (cellX != Math.max(a.minCellX, b.minCellX) ||
+                            cellY != Math.max(a.minCellY, b.minCellY) ||
+                            cellZ != Math.max(a.minCellZ, b.minCellZ)) {
+                        continue;
+                    }
+
+                    if (a.bounds.intersects(b.bounds)) {
+                        pairs.add(new Pair<>(a.value, b.value));
+                    }
+                }
+            }
+        }
+
+        return pairs;
+    }
+
+    private int toCell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    // 21 bits per axis is plenty for cell coordinates of a Minecraft world (and for ship-yard positions)
+    private static long packCell(int x, int y, int z) {
+        return ((long) (x & 0x1FFFFF) << 42) | ((long) (y & 0x1FFFFF) << 21) | (long) (z & 0x1FFFFF);
+    }
+
+    private static int unpackX(long key) {
+        return signExtend21((int) (key >>> 42));
+    }
+
+    private static int unpackY(long key) {
+        return signExtend21((int) (key >>> 21));
+    }
+
+    private static int unpackZ(long key) {
+        return signExtend21((int) key);
+    }
+
+    private static int signExtend21(int value) {
+        return (value << 11) >> 11;
+    }
+}
@@ -35,9 +35,9 @@ public class ToggleModePacket {
                 Level level = player.level();
                 if (level.getBlockEntity(blockPos) instanceof ShipItemTransportBlockEntity blockEntity) {
                     boolean newMode;
-                    String multiblockId = blockEntity.getMultiblockId();
+                    int multiblockId = blockEntity.getMultiblockId();
 
-                    if (multiblockId != null) {
+                    if (multiblockId != MultiblockManager.NO_MULTIBLOCK) {
                         MultiblockManager manager = MultiblockManager.get(level);
                         if (manager != null) {
                             manager.toggleMultiblockMode(multiblockId);
@@ -50,10 +50,10 @@ public class ToggleModePacket {
                                 if (serverPlayer.containerMenu instanceof ShipItemTransportMenu menu &&
                                         menu.getBlockEntity() != null) {
 
-                                    String viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
+                                    int viewedMultiblockId = menu.getBlockEntity().getMultiblockId();
 
                                     // Send if viewing the same multiblock
-                                    if (multiblockId.equals(viewedMultiblockId)) {
+                                    if (multiblockId == viewedMultiblockId) {
                                         NetworkHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> serverPlayer), syncPacket);
                                     }
                                 }
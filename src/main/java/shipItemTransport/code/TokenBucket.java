@@ -0,0 +1,42 @@
+package shipItemTransport.code;
+
+// Items a link may move, refilled at a steady rate in items per second up to a burst capacity.
+// Refills are worked out from the ticks elapsed since the last refill, which gives the same result
+// as adding rate / 20 every tick without touching idle links.
+public class TokenBucket {
+    private double itemsPerSecond;
+    private double capacity;
+    private double tokens;
+    private long lastRefillTick;
+
+    public TokenBucket(double itemsPerSecond, double capacity, long currentTick) {
+        this.itemsPerSecond = itemsPerSecond;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillTick = currentTick;
+    }
+
+    // Changes the rate; tokens above the new capacity are dropped
+    public void setRate(double itemsPerSecond, double capacity) {
+        this.itemsPerSecond = itemsPerSecond;
+        this.capacity = capacity;
+        tokens = Math.min(tokens, capacity);
+    }
+
+    public void refill(long currentTick) {
+        long elapsed = currentTick - lastRefillTick;
+        if (elapsed <= 0) return;
+
+        tokens = Math.min(capacity, tokens + itemsPerSecond * elapsed / 20.0);
+        lastRefillTick = currentTick;
+    }
+
+    // Whole items that may be moved right now
+    public int getAvailable() {
+        return (int) tokens;
+    }
+
+    public void consume(int items) {
+        tokens = Math.max(0, tokens - items);
+    }
+}
@@ -0,0 +1,59 @@
+package shipItemTransport.code;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Where the last transfer of a link stopped on each side: the exporter chest and slot to take from next,
+// and the importer chest and slot to start new stacks at. Transfers continue from there instead of
+// starting at the first chest and slot 0, so chests drain evenly and long-empty front slots are not rescanned.
+public class TransferCursor {
+    private BlockPos exporterChest;
+    private int exporterSlot = 0;
+    private BlockPos importerChest;
+    private int importerSlot = 0;
+
+    public void moveExporterTo(BlockPos chest, int slot) {
+        exporterChest = chest;
+        exporterSlot = slot;
+    }
+
+    public void moveImporterTo(BlockPos chest, int slot) {
+        importerChest = chest;
+        importerSlot = slot;
+    }
+
+    public BlockPos getExporterChest() {
+        return exporterChest;
+    }
+
+    public BlockPos getImporterChest() {
+        return importerChest;
+    }
+
+    // Slot to continue at in the first chest of the order, 0 if the cursor chest is gone
+    public int getExporterSlot(List<? extends Map.Entry<BlockPos, ?>> order) {
+        return !order.isEmpty() && order.get(0).getKey().equals(exporterChest) ? exporterSlot : 0;
+    }
+
+    public int getImporterSlot(List<? extends Map.Entry<BlockPos, ?>> order) {
+        return !order.isEmpty() && order.get(0).getKey().equals(importerChest) ? importerSlot : 0;
+    }
+
+    // Chests in round-robin order, starting at the given chest when it is still there
+    public static <V> List<Map.Entry<BlockPos, V>> startingAt(Map<BlockPos, V> chests, BlockPos start) {
+        List<Map.Entry<BlockPos, V>> order = new ArrayList<>(chests.entrySet());
+        if (start == null) return order;
+
+        for (int i = 0; i < order.size(); i++) {
+            if (order.get(i).getKey().equals(start)) {
+                List<Map.Entry<BlockPos, V>> rotated = new ArrayList<>(order.subList(i, order.size()));
+                rotated.addAll(order.subList(0, i));
+                return rotated;
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,96 @@
+package shipItemTransport.code;
+
+// A matched exporter/importer pair and its own transfer schedule.
+// A link that moves items runs every base interval; a link that moves nothing (empty source, full target)
+// doubles its interval up to a maximum, and goes back to the base interval when woken.
+// The manager keeps links in a queue ordered by their next run tick and runs them when it comes.
+public class TransferLink {
+    public final int exporterId; // multiblock handles
+    public final int importerId;
+
+    private int interval;
+    private long nextRunTick;
+    private long queuedTick = -1; // next run tick of the link's latest queue entry; older entries are skipped
+    private DockingSession session; // null until the pair passes a full check, cleared when either side changes
+    private final TransferCursor cursor = new TransferCursor();
+    private TokenBucket bucket; // created full on the first transfer
+
+    public TransferLink(int exporterId, int importerId, int baseInterval, long currentTick) {
+        this.exporterId = exporterId;
+        this.importerId = importerId;
+        this.interval = baseInterval;
+        this.nextRunTick = currentTick;
+    }
+
+    // Both handles packed into one long
+    public static long key(int exporterId, int importerId) {
+        return ((long) exporterId << 32) | (importerId & 0xFFFFFFFFL);
+    }
+
+    public void recordRun(int itemsMoved, long currentTick, int baseInterval, int maxInterval) {
+        if (itemsMoved > 0) {
+            interval = baseInterval;
+        } else {
+            interval = Math.max(baseInterval, Math.min(maxInterval, interval * 2));
+        }
+        nextRunTick = currentTick + interval;
+    }
+
+    // Not idle but held back by a rate limit - run again at the given tick on the same interval
+    public void defer(long tick) {
+        nextRunTick = tick;
+    }
+
+    // Something changed on either side - run again right away
+    public void wake(long currentTick, int baseInterval) {
+        interval = baseInterval;
+        nextRunTick = Math.min(nextRunTick, currentTick);
+    }
+
+    public long getNextRunTick() {
+        return nextRunTick;
+    }
+
+    // True if the queue has no entry for the current next run tick yet; the caller then adds one
+    public boolean markQueued() {
+        if (queuedTick == nextRunTick) return false;
+        queuedTick = nextRunTick;
+        return true;
+    }
+
+    // Whether a queue entry for the given tick is still the link's current one
+    public boolean isQueuedFor(long tick) {
+        return queuedTick == tick && nextRunTick == tick;
+    }
+
+    public DockingSession getSession() {
+        return session;
+    }
+
+    public void setSession(DockingSession session) {
+        this.session = session;
+    }
+
+    public TransferCursor getCursor() {
+        return cursor;
+    }
+
+    // Token bucket at the given rate, created full on first use
+    public TokenBucket getBucket(double itemsPerSecond, double capacity, long currentTick) {
+        if (bucket == null) {
+            bucket = new TokenBucket(itemsPerSecond, capacity, currentTick);
+        } else {
+            bucket.setRate(itemsPerSecond, capacity);
+        }
+        return bucket;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    @Override
+    public String toString() {
+        return exporterId + "->" + importerId;
+    }
+}
@@ -0,0 +1,130 @@
+package shipItemTransport.code;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+
+import java.util.*;
+
+// Moves planned for one transfer: source slot, target slot and count, worked out from the inventory
+// summaries and the importer slot index before anything is touched.
+// Committing makes one real extract and one real insert per move. Whatever the target refuses, because it
+// changed since planning, is rolled back into the slot it just came out of.
+public class TransferPlan {
+    private final List<Move> moves = new ArrayList<>();
+    private final Set<BlockPos> sourceChests = new LinkedHashSet<>();
+
+    // Results of the last commit
+    private int shortfalls = 0;
+    private int rollbacks = 0;
+    private final Set<BlockPos> changedTargetChests = new LinkedHashSet<>();
+    private final Map<BlockPos, List<ItemStack>> unreturned = new LinkedHashMap<>();
+
+    private static class Move {
+        final BlockPos sourceChest;
+        final IItemHandler source;
+        final int sourceSlot;
+        final BlockPos targetChest;
+        final IItemHandler target;
+        final int targetSlot;
+        final int count;
+
+        Move(BlockPos sourceChest, IItemHandler source, int sourceSlot, BlockPos targetChest, IItemHandler target, int targetSlot, int count) {
+            this.sourceChest = sourceChest;
+            this.source = source;
+            this.sourceSlot = sourceSlot;
+            this.targetChest = targetChest;
+            this.target = target;
+            this.targetSlot = targetSlot;
+            this.count = count;
+        }
+    }
+
+    public void addMove(BlockPos sourceChest, IItemHandler source, int sourceSlot, BlockPos targetChest, IItemHandler target, int targetSlot, int count) {
+        moves.add(new Move(sourceChest, source, sourceSlot, targetChest, target, targetSlot, count));
+        sourceChests.add(sourceChest);
+    }
+
+    public boolean isEmpty() {
+        return moves.isEmpty();
+    }
+
+    public int getMoveCount() {
+        return moves.size();
+    }
+
+    // Exporter chests the plan takes items from
+    public Set<BlockPos> getSourceChests() {
+        return sourceChests;
+    }
+
+    // Runs every move and returns the number of items that reached their target
+    public int commit() {
+        int moved = 0;
+        shortfalls = 0;
+        rollbacks = 0;
+        changedTargetChests.clear();
+        unreturned.clear();
+
+        for (Move move : moves) {
+            ItemStack extracted = move.source.extractItem(move.sourceSlot, move.count, false);
+            if (extracted.isEmpty()) {
+                // Source changed since planning
+                shortfalls++;
+                continue;
+            }
+
+            ItemStack rejected = move.target.insertItem(move.targetSlot, extracted, false);
+            moved += extracted.getCount() - rejected.getCount();
+            // Counted even if everything bounced, a roll back may still put items into the target
+            changedTargetChests.add(move.targetChest);
+
+            if (!rejected.isEmpty()) {
+                // Target changed since planning
+                rollBack(move, rejected);
+                rollbacks++;
+            }
+            if (extracted.getCount() < move.count || !rejected.isEmpty()) {
+                shortfalls++;
+            }
+        }
+
+        return moved;
+    }
+
+    // Returns refused items to the source slot they just left, then anywhere in the source, then anywhere
+    // in the target
+    private void rollBack(Move move, ItemStack rejected) {
+        ItemStack leftover = move.source.insertItem(move.sourceSlot, rejected, false);
+        if (!leftover.isEmpty()) {
+            leftover = ItemHandlerHelper.insertItemStacked(move.source, leftover, false);
+        }
+        if (!leftover.isEmpty()) {
+            leftover = ItemHandlerHelper.insertItemStacked(move.target, leftover, false);
+        }
+        if (!leftover.isEmpty()) {
+            unreturned.computeIfAbsent(move.sourceChest, k -> new ArrayList<>()).add(leftover);
+        }
+    }
+
+    // Importer chests the last commit inserted into; the other planned targets are untouched
+    public Set<BlockPos> getChangedTargetChests() {
+        return changedTargetChests;
+    }
+
+    // Moves that got less than planned in the last commit
+    public int getShortfalls() {
+        return shortfalls;
+    }
+
+    // Moves of the last commit whose target refused part of the items, which went back to the source
+    public int getRollbacks() {
+        return rollbacks;
+    }
+
+    // Items from the last commit that neither chest took back, by the chest they came from
+    public Map<BlockPos, List<ItemStack>> getUnreturnedItems() {
+        return unreturned;
+    }
+}
@@ -0,0 +1,80 @@
+package shipItemTransport.code;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+
+// Runs the pure-math part of a transfer cycle on a small worker pool: the facing, box and face projection of
+// each stale multiblock, then the facing, box, alignment and amount checks of each candidate pair. The input
+// is captured on the server thread and never changed afterwards; the results go back to the server thread,
+// which stores them and does every item handler move.
+public class TransferPlanner {
+    private static ForkJoinPool pool;
+    private static int poolThreads = 0;
+
+    // A candidate pair and, once planned, the result of its full check
+    public static class PairCheck {
+        public final MultiblockManager.MultiblockTransferData first;
+        public final MultiblockManager.MultiblockTransferData second;
+        public boolean planned = false;
+        public boolean passes; // full transfer check
+        public boolean stillDocked; // looser check that keeps an existing docking session alive
+        public int facingPairs; // exporter cells facing an importer cell across the shared face
+        public float alignmentPercent;
+        public int transferAmount;
+
+        public PairCheck(MultiblockManager.MultiblockTransferData first, MultiblockManager.MultiblockTransferData second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    // Plans the given items on the worker pool, or right away on this thread when the pool is disabled.
+    // The planner must only read what was captured into the item and write its results there.
+    public static <T> CompletableFuture<List<T>> plan(List<T> items, Function<T, T> planner) {
+        ForkJoinPool workers = getPool();
+        if (workers == null || items.isEmpty()) {
+            items.forEach(planner::apply);
+            return CompletableFuture.completedFuture(items);
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> planner.apply(item), workers));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(done -> items);
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        int threads = Math.max(0, Config.TRANSFER_PLANNER_THREADS);
+        if (threads != poolThreads) {
+            // Thread count changed by a config reload
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+            if (threads > 0) {
+                pool = new ForkJoinPool(threads, TransferPlanner::newWorker, null, false);
+            }
+            poolThreads = threads;
+        }
+        return pool;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool forkJoinPool) {
+        ForkJoinWorkerThread thread = new ForkJoinWorkerThread(forkJoinPool) {
+            @Override
+            protected void onStart() {
+                super.onStart();
+                // Logging from here must not touch players or the log file directly
+                Logger.deferOnThisThread();
+            }
+        };
+        thread.setName("Ship Item Transport Planner-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,61 @@
+package shipItemTransport.code;
+
+import java.util.ArrayDeque;
+
+// Spreads transfer work over several ticks.
+// Work is queued as small resumable units (one multiblock recalculation, one pair check, ...)
+// and each tick runs units until the time budget is used up; the rest carries over to the next tick.
+public class TransferScheduler {
+    private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+
+    // Stats of the last tick, for logging
+    private int lastUnitsRun = 0;
+    private long lastNanosUsed = 0;
+
+    public void enqueue(Runnable unit) {
+        pending.addLast(unit);
+    }
+
+    public boolean isIdle() {
+        return pending.isEmpty();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void clear() {
+        pending.clear();
+    }
+
+    // Runs queued units until the budget is used up or the queue is empty.
+    // At least one unit always runs, so a tiny budget still makes progress.
+    public int runWithinBudget(long budgetNanos) {
+        long start = System.nanoTime();
+        int unitsRun = 0;
+
+        while (!pending.isEmpty()) {
+            Runnable unit = pending.pollFirst();
+            try {
+                unit.run();
+            } catch (Exception e) {
+                Logger.sendMessage("Transfer work unit failed: " + e.getMessage(), false);
+            }
+            unitsRun++;
+
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+
+        lastUnitsRun = unitsRun;
+        lastNanosUsed = System.nanoTime() - start;
+        return unitsRun;
+    }
+
+    public int getLastUnitsRun() {
+        return lastUnitsRun;
+    }
+
+    public long getLastNanosUsed() {
+        return lastNanosUsed;
+    }
+}